@@ -152,6 +152,89 @@ public interface Graph extends AutoCloseable,RDF {
         add(subject, predicate, getContext().createLiteralDynamic(value));
     }
     
+    /**
+     * Add all the triples of a stream to the graph, possibly mapping any of
+     * their components to those supported by this Graph.
+     *
+     * @param triples The triples to add
+     * @see #addAll(Iterable, long, boolean)
+     */
+    default void addAll(Stream<? extends Triple> triples)
+            throws UnsupportedOperationException {
+        addAll(triples, -1, false);
+    }
+
+    /**
+     * Add all the triples of a stream to the graph, possibly mapping any of
+     * their components to those supported by this Graph.
+     * <p>
+     * The stream is consumed sequentially, even if it is parallel.
+     *
+     * @param triples       The triples to add
+     * @param sizeHint      The expected number of triples, or -1 if unknown
+     * @param deferIndexing True if indexes may be built after the triples are
+     *                      added rather than maintained for each triple
+     * @see #addAll(Iterable, long, boolean)
+     */
+    @SuppressWarnings("unchecked")
+    default void addAll(Stream<? extends Triple> triples, long sizeHint,
+                        boolean deferIndexing)
+            throws UnsupportedOperationException {
+        Stream<Triple> sequential = (Stream<Triple>) triples.sequential();
+        addAll(sequential::iterator, sizeHint, deferIndexing);
+    }
+
+    /**
+     * Add all the triples of an iterable to the graph, possibly mapping any of
+     * their components to those supported by this Graph.
+     *
+     * @param triples The triples to add
+     * @see #addAll(Iterable, long, boolean)
+     */
+    default void addAll(Iterable<? extends Triple> triples)
+            throws UnsupportedOperationException {
+        addAll(triples, -1, false);
+    }
+
+    /**
+     * Add all the triples of an iterable to the graph, possibly mapping any of
+     * their components to those supported by this Graph.
+     * <p>
+     * This is the bulk counterpart of {@link #add(Triple)}, which the default
+     * implementation calls for each triple. Implementations may use the
+     * <code>sizeHint</code> to size their storage up front, and may load the
+     * triples in batches.
+     * <p>
+     * With <code>deferIndexing</code>, an implementation that keeps indexes
+     * may leave them out of date while the triples are added and build them
+     * once, e.g. when the graph is next queried, which is cheaper when loading
+     * many triples into a graph that is not queried in between. The triples
+     * are part of the graph either way.
+     *
+     * @param triples       The triples to add
+     * @param sizeHint      The expected number of triples, or -1 if unknown
+     * @param deferIndexing True if indexes may be built after the triples are
+     *                      added rather than maintained for each triple
+     */
+    default void addAll(Iterable<? extends Triple> triples, long sizeHint,
+                        boolean deferIndexing)
+            throws UnsupportedOperationException {
+        for (Triple triple : triples) {
+            add(triple);
+        }
+    }
+
+    /**
+     * Add all the triples of another graph to this graph, possibly mapping any
+     * of their components to those supported by this Graph.
+     *
+     * @param graph The graph whose triples to add
+     * @see #addAll(Iterable, long, boolean)
+     */
+    default void addAll(Graph graph) throws UnsupportedOperationException {
+        addAll(graph.getTriples(), graph.size(), true);
+    }
+
     /**
      * Check if graph contains triple.
      *
@@ -315,6 +398,49 @@ public interface Graph extends AutoCloseable,RDF {
      */
     long size();
 
+    /**
+     * Number of triples contained by the graph matched with the pattern.
+     * <p>
+     * The default implementation counts the triples of
+     * {@link #getTriples(BlankNodeOrIRI, IRI, RDFTerm)}; implementations that
+     * keep indexes may answer from the sizes of their indexes instead.
+     *
+     * @param subject   The triple subject (null is a wildcard)
+     * @param predicate The triple predicate (null is a wildcard)
+     * @param object    The triple object (null is a wildcard)
+     * @return The number of matching triples
+     */
+    default long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        if (subject == null && predicate == null && object == null) {
+            return size();
+        }
+        return getTriples(subject, predicate, object).count();
+    }
+
+    /**
+     * An upper bound of the number of triples contained by the graph matched
+     * with the pattern, which is cheap to compute.
+     * <p>
+     * The estimate is never less than
+     * {@link #count(BlankNodeOrIRI, IRI, RDFTerm)}, but may be much greater.
+     * The default implementation does not look at the triples, and gives 1
+     * for a fully bound pattern and {@link #size()} otherwise. Implementations
+     * that keep indexes may give the exact count.
+     *
+     * @param subject   The triple subject (null is a wildcard)
+     * @param predicate The triple predicate (null is a wildcard)
+     * @param object    The triple object (null is a wildcard)
+     * @return An upper bound of the number of matching triples
+     */
+    default long estimateCount(BlankNodeOrIRI subject, IRI predicate,
+                               RDFTerm object) {
+        long size = size();
+        if (subject != null && predicate != null && object != null) {
+            return Math.min(1, size);
+        }
+        return size;
+    }
+
     /**
      * Get all triples contained by the graph.<br>
      * <p>
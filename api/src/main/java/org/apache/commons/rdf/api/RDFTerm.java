@@ -17,6 +17,9 @@
  */
 package org.apache.commons.rdf.api;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * An <a href= "http://www.w3.org/TR/rdf11-concepts/#dfn-rdf-term" >RDF-1.1
  * Term</a>, as defined by <a href= "http://www.w3.org/TR/rdf11-concepts/"
@@ -37,4 +40,37 @@ public interface RDFTerm extends RDF {
      */
     String ntriplesString();
 
+    /**
+     * Append the term serialised as by {@link #ntriplesString()} to an
+     * {@link Appendable}.
+     * <p>
+     * The default implementation appends {@link #ntriplesString()}.
+     * Implementations should override it to append the term without building
+     * an intermediate String.
+     *
+     * @param out The Appendable to append the term to
+     * @throws IOException If the Appendable fails
+     */
+    default void appendTo(Appendable out) throws IOException {
+        out.append(ntriplesString());
+    }
+
+    /**
+     * Append the term serialised as by {@link #ntriplesString()} to a
+     * {@link StringBuilder}.
+     *
+     * @param sb The StringBuilder to append the term to
+     * @return The given StringBuilder
+     * @see #appendTo(Appendable)
+     */
+    default StringBuilder appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // Not thrown by StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return sb;
+    }
+
 }
@@ -17,6 +17,9 @@
  */
 package org.apache.commons.rdf.api;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * An <a href= "http://www.w3.org/TR/rdf11-concepts/#dfn-rdf-triple" >RDF-1.1
  * Triple</a>, as defined by <a href= "http://www.w3.org/TR/rdf11-concepts/"
@@ -59,6 +62,41 @@ public interface Triple extends RDF {
      */
     RDFTerm getObject();
 
+    /**
+     * Append the triple as an N-Triples statement, without a line break, to an
+     * {@link Appendable}. The terms are appended with
+     * {@link RDFTerm#appendTo(Appendable)}.
+     *
+     * @param out The Appendable to append the triple to
+     * @throws IOException If the Appendable fails
+     */
+    default void appendTo(Appendable out) throws IOException {
+        getSubject().appendTo(out);
+        out.append(' ');
+        getPredicate().appendTo(out);
+        out.append(' ');
+        getObject().appendTo(out);
+        out.append(" .");
+    }
+
+    /**
+     * Append the triple as an N-Triples statement, without a line break, to a
+     * {@link StringBuilder}.
+     *
+     * @param sb The StringBuilder to append the triple to
+     * @return The given StringBuilder
+     * @see #appendTo(Appendable)
+     */
+    default StringBuilder appendTo(StringBuilder sb) {
+        try {
+            appendTo((Appendable) sb);
+        } catch (IOException e) {
+            // Not thrown by StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return sb;
+    }
+
     /**
      * Check it this Triple is equal to another Triple.
      * <p>
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -243,6 +244,32 @@ public abstract class AbstractGraphTest {
         assertEquals(shrunkSize, graph.size());
     }
 
+    @Test
+    public void addAll() throws Exception {
+        Graph copy = factory.createGraph();
+        copy.addAll(graph);
+        assertEquals(graph.size(), copy.size());
+        assertTrue(graph.getTriples().allMatch(t -> copy.contains(t)));
+
+        List<Triple> triples = new ArrayList<>();
+        graph.iterate().forEach(triples::add);
+        Graph loaded = factory.createGraph();
+        loaded.addAll(triples, triples.size(), true);
+        // Duplicates are not added again
+        loaded.addAll(graph.getTriples(), -1, true);
+        assertEquals(graph.size(), loaded.size());
+        // Deferred indexes are up to date for queries and removal
+        assertEquals(graph.getTriples(null, knows, null).count(),
+                loaded.getTriples(null, knows, null).count());
+        assertEquals(graph.getTriples(null, null, bob).count(),
+                loaded.getTriples(null, null, bob).count());
+        loaded.remove(alice, knows, bob);
+        assertFalse(loaded.contains(alice, knows, bob));
+        assertEquals(graph.size() - 1, loaded.size());
+        loaded.addAll(triples);
+        assertEquals(graph.size(), loaded.size());
+    }
+
     @Test
     public void clear() throws Exception {
         graph.clear();
@@ -278,6 +305,39 @@ public abstract class AbstractGraphTest {
         assertEquals(3, graph.getTriples(null, member, null).count());
     }
 
+    @Test
+    public void count() throws Exception {
+        assertEquals(graph.size(), graph.count(null, null, null));
+        assertEquals(1, graph.count(alice, knows, bob));
+        assertEquals(0, graph.count(bob, knows, alice));
+        assertEquals(1, graph.count(null, knows, null));
+        assertEquals(1, graph.count(alice, null, bob));
+        assertEquals(1, graph.count(null, knows, bob));
+        assertEquals(0, graph.count(null, null, alice));
+        // the estimate is an upper bound
+        assertTrue(graph.estimateCount(alice, knows, bob) >= 1);
+        assertTrue(graph.estimateCount(null, knows, null) >= 1);
+        assertTrue(graph.estimateCount(null, null, null) >= graph.size());
+
+        Assume.assumeNotNull(bnode1, bnode2, aliceName, bobName, secretClubName,
+                companyName, bobNameTriple);
+        assertEquals(3, graph.count(alice, null, null));
+        assertEquals(4, graph.count(null, name, null));
+        assertEquals(2, graph.count(null, member, bnode1));
+        assertEquals(2, graph.count(null, null, bnode1));
+        assertEquals(2, graph.count(bob, member, null));
+        assertTrue(graph.estimateCount(null, name, null) >= 4);
+
+        // Counts follow removals, and triples added with deferred indexing
+        graph.remove(bob, member, null);
+        assertEquals(0, graph.count(bob, member, null));
+        assertEquals(1, graph.count(null, member, null));
+        graph.addAll(Arrays.asList(factory.createTriple(bob, member, bnode1),
+                factory.createTriple(bob, member, bnode2)), 2, true);
+        assertEquals(3, graph.count(null, member, null));
+        assertEquals(2, graph.count(null, null, bnode1));
+    }
+
     /**
      * An attempt to use the Java 8 streams to look up a more complicated query.
      * <p>
@@ -21,11 +21,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.*;
@@ -634,5 +636,27 @@ public abstract class AbstractRDFTermFactoryTest {
         assertEquals(BigInteger.valueOf(115),l.asDynamic());
     }
 
+    @Test
+    public void testAppendTo() throws Exception {
+        Triple triple;
+        try {
+            triple = factory.createTriple(
+                    factory.createIRI("http://example.com/s"),
+                    factory.createIRI("http://example.com/p"),
+                    factory.createLiteral("a \"quoted\"\nline", "en"));
+        } catch (UnsupportedOperationException ex) {
+            Assume.assumeNoException(ex);
+            return;
+        }
+        StringBuilder sb = new StringBuilder("> ");
+        assertSame(sb, triple.getObject().appendTo(sb));
+        assertEquals("> " + triple.getObject().ntriplesString(), sb.toString());
+
+        StringWriter writer = new StringWriter();
+        triple.appendTo((Appendable) writer);
+        assertEquals(triple.getSubject().ntriplesString() + " "
+                + triple.getPredicate().ntriplesString() + " "
+                + triple.getObject().ntriplesString() + " .", writer.toString());
+    }
 
 }
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks once for each of several thread counts.
+ * <p>
+ * Takes the usual JMH command line options. Unless a thread count is given
+ * with <code>-t</code>, the benchmarks are run with each of the comma
+ * separated counts of the <code>threads</code> system property, by default
+ * <code>1,4</code>. With more than one thread the graph benchmarks only run
+ * the {@link Implementations#THREAD_SAFE} implementations, unless others are
+ * chosen with <code>-p graph=...</code>.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws IOException,
+            RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList()
+                || cli.getThreads().hasValue()) {
+            Main.main(args);
+            return;
+        }
+        for (String threads : System.getProperty("threads", "1,4").split(",")) {
+            int count = Integer.parseInt(threads.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder().parent(cli)
+                    .threads(count);
+            if (count > 1 && !cli.getParameter("graph").hasValue()) {
+                options.param("graph", Implementations.THREAD_SAFE);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread position in an array of inputs, so that each operation sees a
+ * different input and threads do not walk in lockstep.
+ */
+@State(Scope.Thread)
+public class Cursor {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    private int position = THREADS.getAndIncrement() * 7919;
+
+    /**
+     * Advance the cursor.
+     *
+     * @param length Length of the array to index
+     * @return The next index into the array
+     */
+    public int next(int length) {
+        if (++position >= length) {
+            position %= length;
+        }
+        return position;
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+/**
+ * Deterministic test data, so that runs on different machines and
+ * implementations see the same triples.
+ */
+final class Data {
+
+    /** Number of distinct predicates, like a small vocabulary */
+    static final int PREDICATES = 16;
+
+    private Data() {
+    }
+
+    /**
+     * Generate distinct triples under a base IRI.
+     * <p>
+     * There are about eight triples per subject and {@link #PREDICATES}
+     * predicates. Objects are in turn IRIs of other subjects, plain literals,
+     * language-tagged literals and integers.
+     *
+     * @param factory The factory to create the terms with
+     * @param base    Base of the generated IRIs
+     * @param count   Number of triples
+     * @param seed    Seed of the random choices
+     * @return The triples, in generation order
+     */
+    static Triple[] triples(RDFContext factory, String base, int count,
+                            long seed) {
+        Random random = new Random(seed);
+        int subjects = count / 8 + 1;
+        IRI[] predicates = new IRI[PREDICATES];
+        for (int i = 0; i < PREDICATES; i++) {
+            predicates[i] = factory.createIRI(base + "p" + i);
+        }
+        Set<Triple> triples = new LinkedHashSet<>(count * 2);
+        for (int i = 0; triples.size() < count; i++) {
+            BlankNodeOrIRI subject = factory.createIRI(base + "s"
+                    + random.nextInt(subjects));
+            IRI predicate = predicates[random.nextInt(PREDICATES)];
+            RDFTerm object;
+            switch (i & 3) {
+                case 0:
+                    object = factory.createIRI(base + "s"
+                            + random.nextInt(subjects));
+                    break;
+                case 1:
+                    object = factory.createLiteral("Value " + i);
+                    break;
+                case 2:
+                    object = factory.createLiteral("Wert " + i, "de");
+                    break;
+                default:
+                    object = factory.createLiteral((long) random.nextInt());
+            }
+            triples.add(factory.createTriple(subject, predicate, object));
+        }
+        return triples.toArray(new Triple[count]);
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Adding, finding and removing single triples in a graph of a given size.
+ * <p>
+ * The graph is shared by all benchmark threads, so only run the
+ * implementations in {@link Implementations#THREAD_SAFE} with more than one
+ * thread; {@link BenchmarkRunner} takes care of that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    @Param({ "simple", "indexed", "dictionary", "offheap", "concurrent",
+            "snapshot" })
+    public String graph;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    private RDFContext factory;
+    private Graph g;
+    private Triple[] present;
+    private Triple[] absent;
+
+    @Setup
+    public void setUp() {
+        factory = Implementations.factory(graph);
+        present = Data.triples(factory, "http://example.com/", size, 1);
+        absent = Data.triples(factory, "http://example.org/", 1024, 2);
+        g = factory.createGraph();
+        g.addAll(Arrays.asList(present), size, true);
+        // Build any deferred indexes before measuring
+        g.contains(present[0]);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        g.close();
+    }
+
+    @Benchmark
+    public boolean containsPresent(Cursor cursor) {
+        return g.contains(present[cursor.next(present.length)]);
+    }
+
+    @Benchmark
+    public boolean containsAbsent(Cursor cursor) {
+        return g.contains(absent[cursor.next(absent.length)]);
+    }
+
+    /**
+     * Add a triple that is not in the graph and remove it again, which keeps
+     * the graph at its size.
+     */
+    @Benchmark
+    public void addRemove(Cursor cursor) {
+        Triple triple = absent[cursor.next(absent.length)];
+        g.add(triple);
+        g.remove(triple);
+    }
+
+    /**
+     * Add a triple that is already in the graph.
+     */
+    @Benchmark
+    public void addPresent(Cursor cursor) {
+        g.add(present[cursor.next(present.length)]);
+    }
+
+    /**
+     * Fill an empty graph one triple at a time.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public long load() throws Exception {
+        try (Graph loaded = factory.createGraph()) {
+            for (Triple triple : present) {
+                loaded.add(triple);
+            }
+            return loaded.size();
+        }
+    }
+
+    /**
+     * Fill an empty graph in bulk with {@link Graph#addAll(Iterable, long, boolean)}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public long loadAll() throws Exception {
+        try (Graph loaded = factory.createGraph()) {
+            loaded.addAll(Arrays.asList(present), present.length, true);
+            return loaded.contains(present[0]) ? loaded.size() : -1;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link Graph#getTriples(org.apache.commons.rdf.api.BlankNodeOrIRI,
+ * org.apache.commons.rdf.api.IRI, org.apache.commons.rdf.api.RDFTerm)} for
+ * each shape of pattern.
+ * <p>
+ * A <code>pattern</code> names the bound positions of subject, predicate and
+ * object, with <code>_</code> for a wildcard; the bound terms are taken from a
+ * triple of the graph, so every query has at least one match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphQueryBenchmark {
+
+    @Param({ "simple", "indexed", "dictionary", "offheap", "concurrent",
+            "snapshot" })
+    public String graph;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int size;
+
+    @Param({ "SPO", "SP_", "S_O", "_PO", "S__", "_P_", "__O", "___" })
+    public String pattern;
+
+    private Graph g;
+    private Triple[] present;
+    private boolean subject;
+    private boolean predicate;
+    private boolean object;
+
+    @Setup
+    public void setUp() {
+        RDFContext factory = Implementations.factory(graph);
+        present = Data.triples(factory, "http://example.com/", size, 1);
+        g = factory.createGraph();
+        g.addAll(Arrays.asList(present), size, true);
+        g.contains(present[0]);
+        subject = pattern.charAt(0) == 'S';
+        predicate = pattern.charAt(1) == 'P';
+        object = pattern.charAt(2) == 'O';
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        g.close();
+    }
+
+    @Benchmark
+    public void getTriples(Cursor cursor, Blackhole blackhole) {
+        Triple triple = present[cursor.next(present.length)];
+        g.getTriples(subject ? triple.getSubject() : null,
+                predicate ? triple.getPredicate() : null,
+                object ? triple.getObject() : null).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public boolean containsPattern(Cursor cursor) {
+        Triple triple = present[cursor.next(present.length)];
+        return g.contains(subject ? triple.getSubject() : null,
+                predicate ? triple.getPredicate() : null,
+                object ? triple.getObject() : null);
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.simple.ConcurrentRDFTermFactory;
+import org.apache.commons.rdf.simple.DictionaryRDFTermFactory;
+import org.apache.commons.rdf.simple.IndexedRDFTermFactory;
+import org.apache.commons.rdf.simple.OffHeapRDFTermFactory;
+import org.apache.commons.rdf.simple.SimpleRDFTermFactory;
+import org.apache.commons.rdf.simple.SnapshotRDFTermFactory;
+
+/**
+ * The implementations the benchmarks can run against, by the name used in
+ * their <code>@Param</code>s.
+ * <p>
+ * To compare a new implementation, add its factory here and pass its name
+ * with <code>-p graph=...</code> or <code>-p factory=...</code>.
+ */
+final class Implementations {
+
+    /** Graphs that may be read and written by several threads at once */
+    static final String[] THREAD_SAFE = { "concurrent", "snapshot" };
+
+    private Implementations() {
+    }
+
+    static RDFContext factory(String name) {
+        switch (name) {
+            case "simple":
+                return new SimpleRDFTermFactory();
+            case "indexed":
+                return new IndexedRDFTermFactory();
+            case "dictionary":
+                return new DictionaryRDFTermFactory();
+            case "offheap":
+                return new OffHeapRDFTermFactory();
+            case "concurrent":
+                return new ConcurrentRDFTermFactory();
+            case "snapshot":
+                return new SnapshotRDFTermFactory();
+            default:
+                throw new IllegalArgumentException("Unknown implementation: "
+                        + name);
+        }
+    }
+
+}
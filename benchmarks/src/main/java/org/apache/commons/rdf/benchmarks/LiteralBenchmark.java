@@ -0,0 +1,289 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The typed <code>createLiteral</code> overloads and the
+ * <code>Literal.asX</code> accessors.
+ * <p>
+ * The accessors are measured on literals created from lexical forms, as a
+ * parser would, both on the same literals again and again
+ * (<code>asLong</code>) and on a freshly created literal each time
+ * (<code>parseAsLong</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiteralBenchmark {
+
+    private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+    private static final int VALUES = 1024;
+
+    @Param({ "simple" })
+    public String factory;
+
+    private RDFContext context;
+    private IRI xsdInt;
+    private String[] strings = new String[VALUES];
+    private long[] longs = new long[VALUES];
+    private double[] doubles = new double[VALUES];
+    private boolean[] booleans = new boolean[VALUES];
+    private BigInteger[] bigIntegers = new BigInteger[VALUES];
+    private BigDecimal[] decimals = new BigDecimal[VALUES];
+    private LocalDate[] dates = new LocalDate[VALUES];
+    private OffsetDateTime[] dateTimes = new OffsetDateTime[VALUES];
+    private LocalDateTime[] localDateTimes = new LocalDateTime[VALUES];
+    private LocalTime[] times = new LocalTime[VALUES];
+    private OffsetTime[] offsetTimes = new OffsetTime[VALUES];
+    private Object[] objects = new Object[VALUES];
+    private String[] intForms = new String[VALUES];
+    private Literal[] parsedInts = new Literal[VALUES];
+    private Literal[] parsedDoubles = new Literal[VALUES];
+    private Literal[] parsedDecimals = new Literal[VALUES];
+    private Literal[] parsedBooleans = new Literal[VALUES];
+    private Literal[] parsedDateTimes = new Literal[VALUES];
+
+    @Setup
+    public void setUp() {
+        context = Implementations.factory(factory);
+        xsdInt = context.createIRI(XSD + "int");
+        IRI xsdDouble = context.createIRI(XSD + "double");
+        IRI xsdDecimal = context.createIRI(XSD + "decimal");
+        IRI xsdBoolean = context.createIRI(XSD + "boolean");
+        IRI xsdDateTime = context.createIRI(XSD + "dateTime");
+        Random random = new Random(3);
+        for (int i = 0; i < VALUES; i++) {
+            strings[i] = "Value " + i;
+            longs[i] = random.nextInt();
+            doubles[i] = random.nextDouble() * 1e6;
+            booleans[i] = random.nextBoolean();
+            bigIntegers[i] = BigInteger.valueOf(random.nextLong())
+                    .shiftLeft(64);
+            decimals[i] = BigDecimal.valueOf(random.nextInt(), 3);
+            dates[i] = LocalDate.ofEpochDay(random.nextInt(40000));
+            dateTimes[i] = OffsetDateTime.of(dates[i].atTime(12, i % 60),
+                    ZoneOffset.ofHours(i % 12));
+            localDateTimes[i] = dateTimes[i].toLocalDateTime();
+            times[i] = localDateTimes[i].toLocalTime();
+            offsetTimes[i] = dateTimes[i].toOffsetTime();
+            intForms[i] = Integer.toString((int) longs[i]);
+            parsedInts[i] = context.createLiteral(intForms[i], xsdInt);
+            parsedDoubles[i] = context.createLiteral(
+                    Double.toString(doubles[i]), xsdDouble);
+            parsedDecimals[i] = context.createLiteral(
+                    decimals[i].toPlainString(), xsdDecimal);
+            parsedBooleans[i] = context.createLiteral(
+                    Boolean.toString(booleans[i]), xsdBoolean);
+            parsedDateTimes[i] = context.createLiteral(dateTimes[i].toString(),
+                    xsdDateTime);
+        }
+        // A mix of the types createLiteralDynamic has to tell apart
+        Object[][] columns = { strings, bigIntegers, decimals, dates,
+                dateTimes, localDateTimes, times, offsetTimes };
+        for (int i = 0; i < VALUES; i++) {
+            switch (i % 12) {
+            case 0:
+                objects[i] = Integer.valueOf((int) longs[i]);
+                break;
+            case 1:
+                objects[i] = Long.valueOf(longs[i]);
+                break;
+            case 2:
+                objects[i] = Double.valueOf(doubles[i]);
+                break;
+            case 3:
+                objects[i] = Boolean.valueOf(booleans[i]);
+                break;
+            default:
+                objects[i] = columns[i % 12 - 4][i];
+            }
+        }
+    }
+
+    @Benchmark
+    public Literal createLiteralString(Cursor cursor) {
+        return context.createLiteral(strings[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralLanguage(Cursor cursor) {
+        return context.createLiteral(strings[cursor.next(VALUES)], "en-GB");
+    }
+
+    @Benchmark
+    public Literal createLiteralTyped(Cursor cursor) {
+        return context.createLiteral(intForms[cursor.next(VALUES)], xsdInt);
+    }
+
+    @Benchmark
+    public Literal createLiteralByte(Cursor cursor) {
+        return context.createLiteral((byte) longs[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralShort(Cursor cursor) {
+        return context.createLiteral((short) longs[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralInt(Cursor cursor) {
+        return context.createLiteral((int) longs[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralLong(Cursor cursor) {
+        return context.createLiteral(longs[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralFloat(Cursor cursor) {
+        return context.createLiteral((float) doubles[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralDouble(Cursor cursor) {
+        return context.createLiteral(doubles[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralBoolean(Cursor cursor) {
+        return context.createLiteral(booleans[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralBigInteger(Cursor cursor) {
+        return context.createLiteral(bigIntegers[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralBigDecimal(Cursor cursor) {
+        return context.createLiteral(decimals[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralLocalDate(Cursor cursor) {
+        return context.createLiteral(dates[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralOffsetDateTime(Cursor cursor) {
+        return context.createLiteral(dateTimes[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralLocalDateTime(Cursor cursor) {
+        return context.createLiteral(localDateTimes[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralLocalTime(Cursor cursor) {
+        return context.createLiteral(times[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralOffsetTime(Cursor cursor) {
+        return context.createLiteral(offsetTimes[cursor.next(VALUES)]);
+    }
+
+    @Benchmark
+    public Literal createLiteralDynamic(Cursor cursor) {
+        return context.createLiteralDynamic(objects[cursor.next(VALUES)]);
+    }
+
+    /**
+     * The lexical form of a literal created from a value, which may be
+     * computed on demand.
+     */
+    @Benchmark
+    public String lexicalFormOfLong(Cursor cursor) {
+        return context.createLiteral(longs[cursor.next(VALUES)])
+                .getLexicalForm();
+    }
+
+    @Benchmark
+    public int asInteger(Cursor cursor) {
+        return parsedInts[cursor.next(VALUES)].asInteger();
+    }
+
+    @Benchmark
+    public long asLong(Cursor cursor) {
+        return parsedInts[cursor.next(VALUES)].asLong();
+    }
+
+    @Benchmark
+    public double asDouble(Cursor cursor) {
+        return parsedDoubles[cursor.next(VALUES)].asDouble();
+    }
+
+    @Benchmark
+    public BigDecimal asBigDecimal(Cursor cursor) {
+        return parsedDecimals[cursor.next(VALUES)].asBigDecimal();
+    }
+
+    @Benchmark
+    public boolean asBoolean(Cursor cursor) {
+        return parsedBooleans[cursor.next(VALUES)].asBoolean();
+    }
+
+    @Benchmark
+    public Temporal asTemporal(Cursor cursor) {
+        return parsedDateTimes[cursor.next(VALUES)].asTemporal();
+    }
+
+    @Benchmark
+    public Object asDynamic(Cursor cursor) {
+        return parsedInts[cursor.next(VALUES)].asDynamic();
+    }
+
+    @Benchmark
+    public long parseAsLong(Cursor cursor) {
+        return context.createLiteral(intForms[cursor.next(VALUES)], xsdInt)
+                .asLong();
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creating IRIs, blank nodes and triples, and writing terms as N-Triples.
+ * <p>
+ * The <code>distinct</code> parameter is the number of different strings the
+ * creation benchmarks cycle through, which decides how often caches in the
+ * factory are hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TermBenchmark {
+
+    @Param({ "simple" })
+    public String factory;
+
+    @Param({ "100", "1000000" })
+    public int distinct;
+
+    private RDFContext context;
+    private String[] iris;
+    private String[] names;
+    private IRI iri;
+    private BlankNode blankNode;
+    private Literal string;
+    private Literal language;
+    private Literal typed;
+    private Triple triple;
+
+    @Setup
+    public void setUp() {
+        context = Implementations.factory(factory);
+        iris = new String[distinct];
+        names = new String[distinct];
+        for (int i = 0; i < distinct; i++) {
+            iris[i] = "http://example.com/resource/" + i;
+            names[i] = "b" + i;
+        }
+        iri = context.createIRI("http://example.com/resource/1");
+        blankNode = context.createBlankNode();
+        string = context.createLiteral("A \"quoted\"\nvalue");
+        language = context.createLiteral("Hello", "en-GB");
+        typed = context.createLiteral("42", context.createIRI(
+                "http://www.w3.org/2001/XMLSchema#int"));
+        triple = context.createTriple(iri,
+                context.createIRI("http://xmlns.com/foaf/0.1/knows"), blankNode);
+    }
+
+    @Benchmark
+    public IRI createIRI(Cursor cursor) {
+        return context.createIRI(iris[cursor.next(distinct)]);
+    }
+
+    @Benchmark
+    public BlankNode createBlankNode() {
+        return context.createBlankNode();
+    }
+
+    @Benchmark
+    public BlankNode createBlankNodeNamed(Cursor cursor) {
+        return context.createBlankNode(names[cursor.next(distinct)]);
+    }
+
+    @Benchmark
+    public Triple createTriple() {
+        return context.createTriple(iri, iri, typed);
+    }
+
+    @Benchmark
+    public String ntriplesIRI() {
+        return iri.ntriplesString();
+    }
+
+    @Benchmark
+    public String ntriplesBlankNode() {
+        return blankNode.ntriplesString();
+    }
+
+    @Benchmark
+    public String ntriplesString() {
+        return string.ntriplesString();
+    }
+
+    @Benchmark
+    public String ntriplesLanguage() {
+        return language.ntriplesString();
+    }
+
+    @Benchmark
+    public String ntriplesTyped() {
+        return typed.ntriplesString();
+    }
+
+    @Benchmark
+    public String ntriplesTriple() {
+        return triple.toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.util.stream.Collectors;
+
+/**
+ * Common base for the Graph implementations of this package.
+ * <p>
+ * Takes care of mapping foreign {@link RDFTerm}s to the local implementations
+ * of the {@link RDFContext} the graph was created by, of choosing between
+ * sequential and parallel streams, and of rendering the first few triples in
+ * {@link #toString()}.
+ */
+abstract class AbstractGraph extends RDFImpl implements Graph {
+
+    private static final int TO_STRING_MAX = 10;
+    protected final RDFContext factory;
+    /** The policy of the factory, if it is a {@link SimpleRDFTermFactory} */
+    protected final StreamPolicy streamPolicy;
+
+    AbstractGraph(RDFContext factory) {
+        super(factory);
+        this.factory = factory;
+        this.streamPolicy = factory instanceof SimpleRDFTermFactory
+                ? ((SimpleRDFTermFactory) factory).getStreamPolicy()
+                : StreamPolicy.DEFAULT;
+    }
+
+    /**
+     * Map a triple to one whose components are all local implementations,
+     * returning the same object if no mapping was needed.
+     *
+     * @param triple The triple to map
+     * @return A triple with local components, equal to the given triple
+     */
+    Triple internallyMap(Triple triple) {
+        BlankNodeOrIRI newSubject = (BlankNodeOrIRI) internallyMap(triple
+                .getSubject());
+        IRI newPredicate = (IRI) internallyMap(triple.getPredicate());
+        RDFTerm newObject = internallyMap(triple.getObject());
+        // Check if any of the object references changed during the mapping, to
+        // avoid creating a new Triple object if possible
+        if (newSubject == triple.getSubject()
+                && newPredicate == triple.getPredicate()
+                && newObject == triple.getObject()) {
+            return triple;
+        }
+        return factory.createTriple(newSubject, newPredicate, newObject);
+    }
+
+    <T extends RDFTerm> RDFTerm internallyMap(T object) {
+        if (object instanceof BlankNode && !(object instanceof BlankNodeImpl)) {
+            BlankNode blankNode = (BlankNode) object;
+            // This guarantees that adding the same BlankNode multiple times to
+            // this graph will generate a local object that is mapped to an
+            // equivalent object, based on the code in the package private
+            // BlankNodeImpl class
+            return factory.createBlankNode(blankNode.uniqueReference());
+        } else if (object instanceof IRI && !(object instanceof IRIImpl)) {
+            IRI iri = (IRI) object;
+            return factory.createIRI(iri.getIRIString());
+        } else if (object instanceof Literal
+                && !(object instanceof AbstractLiteral)) {
+            Literal literal = (Literal) object;
+            if (literal.getLanguageTag().isPresent()) {
+                return factory.createLiteral(literal.getLexicalForm(), literal
+                        .getLanguageTag().get());
+            } else {
+                return factory.createLiteral(literal.getLexicalForm(),
+                        (IRI) internallyMap(literal.getDatatype()));
+            }
+        } else {
+            // The object is a local implementation, and is not a BlankNode, so
+            // can be returned directly
+            return object;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String s = getTriples().limit(TO_STRING_MAX).map(Object::toString)
+                .collect(Collectors.joining("\n"));
+        if (size() > TO_STRING_MAX) {
+            return s + "\n# ... +" + (size() - TO_STRING_MAX) + " more";
+        } else {
+            return s;
+        }
+    }
+
+}
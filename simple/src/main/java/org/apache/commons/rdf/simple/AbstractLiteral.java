@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.io.IOException;
+
+/**
+ * Common base for the Literal implementations of this package, with
+ * N-Triples rendering, equality and a cached hash defined in terms of
+ * {@link #getLexicalForm()}, {@link #getDatatype()} and
+ * {@link #getLanguageTag()}.
+ */
+abstract class AbstractLiteral extends RDFImpl implements Literal,
+        Fingerprinted {
+
+    private static final String QUOTE = "\"";
+
+    /** Computed when first needed, 0 until then */
+    private volatile long fingerprint;
+
+    AbstractLiteral(RDFContext context) {
+        super(context);
+    }
+
+    @Override
+    public String ntriplesString() {
+        return appendTo(new StringBuilder(getLexicalForm().length() + 2))
+                .toString();
+    }
+
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        String lexicalForm = getLexicalForm();
+        out.append(QUOTE);
+        // Escape special characters in a single pass
+        for (int i = 0; i < lexicalForm.length(); i++) {
+            char c = lexicalForm.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        out.append(QUOTE);
+
+        if (getLanguageTag().isPresent()) {
+            out.append('@');
+            out.append(getLanguageTag().get());
+        } else if (!getDatatype().equals(Types.XSD_STRING)) {
+            out.append("^^");
+            getDatatype().appendTo(out);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ntriplesString();
+    }
+
+    @Override
+    public long fingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            fingerprint = h = Hashing.literal(hashedLexicalForm(),
+                    getDatatype(), getLanguageTag().orElse(null));
+        }
+        return h;
+    }
+
+    /**
+     * Get the lexical form to compute the fingerprint from. Literals that
+     * format their lexical form on demand need not keep it for this.
+     *
+     * @return The lexical form
+     */
+    String hashedLexicalForm() {
+        return getLexicalForm();
+    }
+
+    @Override
+    public int hashCode() {
+        return Hashing.hashCode(fingerprint());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || !(obj instanceof Literal)) {
+            return false;
+        }
+        Literal literal = (Literal) obj;
+        return getDatatype().equals(literal.getDatatype())
+                && getLexicalForm().equals(literal.getLexicalForm())
+                && getLanguageTag().equals(literal.getLanguageTag());
+    }
+
+}
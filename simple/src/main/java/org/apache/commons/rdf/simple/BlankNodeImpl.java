@@ -17,6 +17,7 @@
  */
 package org.apache.commons.rdf.simple;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import java.util.UUID;
@@ -28,16 +29,38 @@ import org.apache.commons.rdf.api.RDFContext;
 
 /**
  * A simple implementation of BlankNode.
+ * <p>
+ * Blank nodes created by {@link #BlankNodeImpl(RDFContext)} are identified
+ * by a number from a counter. Their {@link #uniqueReference()} is a UUID made
+ * of that number added to a random salt, so that it is unique across JVMs,
+ * and is only formatted when first asked for. Such nodes are compared and
+ * hashed by their number alone.
+ * <p>
+ * Each thread takes numbers from its own block, and only goes to the shared
+ * counter to get a new block, so that threads creating blank nodes do not
+ * contend.
  */
-final class BlankNodeImpl extends RDFImpl implements BlankNode {
+final class BlankNodeImpl extends RDFImpl implements BlankNode, Fingerprinted {
 
     private static final UUID SALT = UUID.randomUUID();
+    /** The fixed start of the references of anonymous blank nodes */
+    private static final String SALT_PREFIX = SALT.toString().substring(0, 19);
+    /** The highest number handed out in a block so far */
     private static final AtomicLong COUNTER = new AtomicLong();
+    private static final int BLOCK_SIZE = 1024;
+    /** The last number used and the end of the block of each thread */
+    private static final ThreadLocal<long[]> BLOCK =
+            ThreadLocal.withInitial(() -> new long[2]);
 
-    private final String uniqueReference;
+    /** Number of an anonymous blank node, or 0 for a named one */
+    private final long id;
+    private String uniqueReference;
+    /** Computed when first needed, 0 until then */
+    private volatile long fingerprint;
 
     public BlankNodeImpl(RDFContext context) {
-        this(context, SALT, Long.toString(COUNTER.incrementAndGet()));
+        super(context);
+        this.id = nextId();
     }
 
     public BlankNodeImpl(RDFContext context,UUID uuidSalt, String name) {
@@ -69,16 +92,83 @@ final class BlankNodeImpl extends RDFImpl implements BlankNode {
         // has no such requirement.
         this.uniqueReference = UUID.nameUUIDFromBytes(
                 uuidInput.getBytes(StandardCharsets.UTF_8)).toString();
+        this.id = 0;
+    }
+
+    private BlankNodeImpl(RDFContext context, String uniqueReference) {
+        super(context);
+        this.uniqueReference = uniqueReference;
+        this.id = anonymousId(uniqueReference);
+    }
+
+    /**
+     * Recreate a blank node from its {@link #uniqueReference()}, e.g. when
+     * reading it back from storage.
+     *
+     * @param context         The context of the blank node
+     * @param uniqueReference A reference previously returned by
+     *                        {@link #uniqueReference()}
+     * @return A blank node equal to the one the reference was taken from
+     */
+    static BlankNodeImpl fromReference(RDFContext context, String uniqueReference) {
+        return new BlankNodeImpl(context, Objects.requireNonNull(uniqueReference));
+    }
+
+    private static long nextId() {
+        long[] block = BLOCK.get();
+        if (block[0] == block[1]) {
+            block[1] = COUNTER.addAndGet(BLOCK_SIZE);
+            block[0] = block[1] - BLOCK_SIZE;
+        }
+        return ++block[0];
+    }
+
+    /**
+     * Get the number of the anonymous blank node with the given reference.
+     *
+     * @return The number, or 0 if no anonymous blank node of this JVM has the
+     * reference
+     */
+    private static long anonymousId(String uniqueReference) {
+        if (uniqueReference.length() != 36
+                || !uniqueReference.startsWith(SALT_PREFIX)) {
+            return 0;
+        }
+        long id;
+        try {
+            id = UUID.fromString(uniqueReference).getLeastSignificantBits()
+                    - SALT.getLeastSignificantBits();
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+        return id > 0 && id <= COUNTER.get()
+                && reference(id).equals(uniqueReference) ? id : 0;
+    }
+
+    private static String reference(long id) {
+        return new UUID(SALT.getMostSignificantBits(),
+                SALT.getLeastSignificantBits() + id).toString();
     }
 
     @Override
     public String uniqueReference() {
-        return uniqueReference;
+        String result = uniqueReference;
+        if (result == null) {
+            // Formatting is idempotent, so a racing thread does no harm
+            result = reference(id);
+            uniqueReference = result;
+        }
+        return result;
     }
 
     @Override
     public String ntriplesString() {
-        return "_:" + uniqueReference;
+        return "_:" + uniqueReference();
+    }
+
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append("_:").append(uniqueReference());
     }
 
     @Override
@@ -86,9 +176,19 @@ final class BlankNodeImpl extends RDFImpl implements BlankNode {
         return ntriplesString();
     }
 
+    @Override
+    public long fingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            fingerprint = h = id != 0 ? Hashing.blankNode(id)
+                    : Hashing.blankNode(uniqueReference);
+        }
+        return h;
+    }
+
     @Override
     public int hashCode() {
-        return uniqueReference.hashCode();
+        return Hashing.hashCode(fingerprint());
     }
 
     @Override
@@ -96,21 +196,14 @@ final class BlankNodeImpl extends RDFImpl implements BlankNode {
         if (this == obj) {
             return true;
         }
-        if (obj == null) {
-            return false;
-        }
         // We don't support equality with other implementations
         if (!(obj instanceof BlankNodeImpl)) {
             return false;
         }
         BlankNodeImpl other = (BlankNodeImpl) obj;
-        if (uniqueReference == null) {
-            if (other.uniqueReference != null) {
-                return false;
-            }
-        } else if (!uniqueReference.equals(other.uniqueReference)) {
-            return false;
+        if (id != 0 || other.id != 0) {
+            return id == other.id;
         }
-        return true;
+        return uniqueReference.equals(other.uniqueReference);
     }
 }
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding up to about a maximum number of entries.
+ * <p>
+ * Lookups are plain {@link ConcurrentHashMap} reads. When an insertion takes
+ * the cache over its maximum size, a quarter of the entries, in the
+ * arbitrary order of the map, are evicted, so eviction is cheap when
+ * amortized over insertions, at the price of sometimes evicting values that
+ * are still in use. Those are simply created again.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ */
+final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * @param maxSize The number of entries to keep at most, or 0 to not cache
+     *                anything
+     */
+    BoundedCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Negative cache size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the value cached for a key, creating and caching it if needed.
+     * <p>
+     * If several threads create a value for the same key at once, they all
+     * get the value that was cached first.
+     *
+     * @param key    The key to look up
+     * @param create Creates the value of a key, and may throw to reject it
+     * @return The cached value
+     */
+    V get(K key, Function<? super K, ? extends V> create) {
+        V value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = create.apply(key);
+        if (maxSize == 0) {
+            return value;
+        }
+        V cached = map.putIfAbsent(key, value);
+        if (cached != null) {
+            return cached;
+        }
+        if (map.size() > maxSize) {
+            evict();
+        }
+        return value;
+    }
+
+    int size() {
+        return map.size();
+    }
+
+    private void evict() {
+        int toEvict = map.size() - maxSize + maxSize / 4;
+        Iterator<K> keys = map.keySet().iterator();
+        while (toEvict-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+}
@@ -0,0 +1,269 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe implementation of Graph with lock striping.
+ * <p>
+ * {@link Triple}s are spread by the hash of their subject over a fixed number
+ * of shards, each a {@link TripleIndex} guarded by its own read-write lock.
+ * Readers of a shard run at the same time, and writers only block the
+ * readers and writers of the one shard they change, so many threads can use
+ * the graph at once.
+ * <p>
+ * Patterns with a bound subject are answered from a single shard. Other
+ * patterns visit every shard in turn, in parallel for an unbound subject.
+ * {@link #count(BlankNodeOrIRI, IRI, RDFTerm)} adds up the counts of the
+ * shards' indexes, without visiting any triples.
+ * The matches of a shard are copied while its read lock is held, so streams
+ * are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException}, and reflect each shard
+ * as it was when the stream reached it.
+ */
+final class ConcurrentGraphImpl extends AbstractGraph {
+
+    private static final int SHARDS = Math.max(16, Integer.highestOneBit(
+            Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    ConcurrentGraphImpl(RDFContext factory) {
+        super(factory);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @Override
+    public void add(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        add(factory.createTriple((BlankNodeOrIRI) internallyMap(subject),
+                (IRI) internallyMap(predicate), internallyMap(object)));
+    }
+
+    @Override
+    public void add(Triple triple) {
+        Triple local = internallyMap(triple);
+        Shard shard = shard(local.getSubject());
+        shard.writeLock.lock();
+        try {
+            shard.index.add(local);
+        } finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void addAll(Iterable<? extends Triple> triples, long sizeHint,
+                       boolean deferIndexing) {
+        // Take each lock once per batch rather than once per triple. Indexing
+        // is never deferred, so that matching under a read lock never
+        // changes a TripleIndex.
+        List<List<Triple>> batches = new ArrayList<>(SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            batches.add(new ArrayList<>());
+        }
+        for (Triple triple : triples) {
+            Triple local = internallyMap(triple);
+            batches.get(shardIndex(local.getSubject())).add(local);
+        }
+        for (int i = 0; i < SHARDS; i++) {
+            List<Triple> batch = batches.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            Shard shard = shards[i];
+            shard.writeLock.lock();
+            try {
+                for (Triple triple : batch) {
+                    shard.index.add(triple);
+                }
+            } finally {
+                shard.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.writeLock.lock();
+            try {
+                shard.index.clear();
+            } finally {
+                shard.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(BlankNodeOrIRI subject, IRI predicate,
+                            RDFTerm object) {
+        return getTriples(subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        BlankNodeOrIRI s = (BlankNodeOrIRI) internallyMap(subject);
+        IRI p = (IRI) internallyMap(predicate);
+        RDFTerm o = internallyMap(object);
+        long count = 0;
+        for (Shard shard : s != null ? new Shard[]{shard(s)} : shards) {
+            shard.readLock.lock();
+            try {
+                count += shard.index.count(s, p, o);
+            } finally {
+                shard.readLock.unlock();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long estimateCount(BlankNodeOrIRI subject, IRI predicate,
+                              RDFTerm object) {
+        return count(subject, predicate, object);
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+        Triple local = internallyMap(Objects.requireNonNull(triple));
+        Shard shard = shard(local.getSubject());
+        shard.readLock.lock();
+        try {
+            return shard.index.contains(local);
+        } finally {
+            shard.readLock.unlock();
+        }
+    }
+
+    @Override
+    public Stream<Triple> getTriples() {
+        return getTriples(null, null, null);
+    }
+
+    @Override
+    public Stream<Triple> getTriples(final BlankNodeOrIRI subject,
+                                     final IRI predicate, final RDFTerm object) {
+        final BlankNodeOrIRI s = (BlankNodeOrIRI) internallyMap(subject);
+        final IRI p = (IRI) internallyMap(predicate);
+        final RDFTerm o = internallyMap(object);
+        if (s != null) {
+            return shard(s).match(s, p, o).stream();
+        }
+        // Copy each shard only as the stream reaches it
+        return streamPolicy.apply(Arrays.stream(shards), size()).unordered()
+                .flatMap(shard -> shard.match(null, p, o).stream());
+    }
+
+    @Override
+    public void remove(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        BlankNodeOrIRI s = (BlankNodeOrIRI) internallyMap(subject);
+        IRI p = (IRI) internallyMap(predicate);
+        RDFTerm o = internallyMap(object);
+        for (Shard shard : s != null ? new Shard[]{shard(s)} : shards) {
+            shard.writeLock.lock();
+            try {
+                // Collect first, as the match is a view over the index
+                for (Triple t : shard.index.match(s, p, o)
+                        .collect(Collectors.toList())) {
+                    shard.index.remove(t);
+                }
+            } finally {
+                shard.writeLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void remove(Triple triple) {
+        Triple local = internallyMap(Objects.requireNonNull(triple));
+        Shard shard = shard(local.getSubject());
+        shard.writeLock.lock();
+        try {
+            shard.index.remove(local);
+        } finally {
+            shard.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            shard.readLock.lock();
+            try {
+                size += shard.index.size();
+            } finally {
+                shard.readLock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Shard shard(RDFTerm subject) {
+        return shards[shardIndex(subject)];
+    }
+
+    private static int shardIndex(RDFTerm subject) {
+        int h = subject.hashCode();
+        return (h ^ (h >>> 16)) & (SHARDS - 1);
+    }
+
+    /**
+     * A stripe of the graph, with its lock.
+     */
+    private static final class Shard {
+
+        private final TripleIndex index = new TripleIndex();
+        private final Lock readLock;
+        private final Lock writeLock;
+
+        Shard() {
+            ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+            readLock = lock.readLock();
+            writeLock = lock.writeLock();
+        }
+
+        /**
+         * Copy the triples of this shard that match a pattern.
+         */
+        List<Triple> match(BlankNodeOrIRI subject, IRI predicate,
+                           RDFTerm object) {
+            readLock.lock();
+            try {
+                return index.match(subject, predicate, object)
+                        .collect(Collectors.toList());
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * A {@link SimpleRDFTermFactory} whose graphs are thread-safe.
+ * <p>
+ * The {@link Graph} instances created by this factory may be read and
+ * written by many threads at once. Their triples are indexed, as for
+ * {@link IndexedRDFTermFactory}, and split into shards by subject, each with
+ * its own read-write lock, so that readers don't block each other and
+ * writers only block the shard they change. Their streams are weakly
+ * consistent and never throw
+ * {@link java.util.ConcurrentModificationException}.
+ * <p>
+ * All other {@link RDFTerm} instances are created as by
+ * {@link SimpleRDFTermFactory}, which is itself thread-safe.
+ */
+public class ConcurrentRDFTermFactory extends SimpleRDFTermFactory {
+
+    @Override
+    public Graph createGraph() {
+        return new ConcurrentGraphImpl(this);
+    }
+
+}
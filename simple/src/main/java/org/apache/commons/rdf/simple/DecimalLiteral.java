@@ -0,0 +1,52 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * An <code>xsd:decimal</code> literal holding a {@link BigDecimal}.
+ */
+final class DecimalLiteral extends NativeLiteral {
+
+    private final BigDecimal value;
+
+    DecimalLiteral(RDFContext context, BigDecimal value) {
+        super(context, Types.XSD_DECIMAL);
+        this.value = Objects.requireNonNull(value);
+    }
+
+    @Override
+    String format() {
+        return value.toString();
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        return value;
+    }
+
+    @Override
+    public Object asDynamic() {
+        return value;
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A memory-compact implementation of Graph using dictionary encoding.
+ * <p>
+ * Every distinct {@link RDFTerm} is assigned an <code>int</code> identifier
+ * in a {@link TermDictionary}, which may be shared between graphs, and the
+ * triples are kept as rows of three identifiers in a {@link TripleTable}.
+ * {@link Triple} objects are only created as they are handed out by
+ * {@link #getTriples()}.
+ * <p>
+ * The dictionary and table may be kept in direct memory, in which case
+ * {@link #close()} releases it.
+ * <p>
+ * Patterns are matched by comparing identifiers, so a pattern with a term
+ * that is not in the dictionary is answered without a scan, and a fully bound
+ * pattern by a single hash lookup.
+ * <p>
+ * All Stream operations are performed using unordered directives, and are
+ * sequential or parallel as set by the {@link StreamPolicy} of the factory
+ * for the size of the graph.
+ */
+final class DictionaryGraphImpl extends AbstractGraph {
+
+    private static final int ANY = -1;
+
+    private final TermDictionary dictionary;
+    private final TripleTable table;
+
+    DictionaryGraphImpl(RDFContext factory, TermDictionary dictionary) {
+        this(factory, dictionary, new TripleTable());
+    }
+
+    DictionaryGraphImpl(RDFContext factory, TermDictionary dictionary,
+                        TripleTable table) {
+        super(factory);
+        this.dictionary = dictionary;
+        this.table = table;
+    }
+
+    @Override
+    public void add(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        table.add(dictionary.intern(internallyMap(Objects.requireNonNull(subject))),
+                dictionary.intern(internallyMap(Objects.requireNonNull(predicate))),
+                dictionary.intern(internallyMap(Objects.requireNonNull(object))));
+    }
+
+    @Override
+    public void add(Triple triple) {
+        add(triple.getSubject(), triple.getPredicate(), triple.getObject());
+    }
+
+    @Override
+    public void addAll(Iterable<? extends Triple> triples, long sizeHint,
+                       boolean deferIndexing) {
+        if (sizeHint > 0) {
+            // Grow the table once rather than doubling it as it fills
+            table.reserve(table.size() + sizeHint);
+        }
+        for (Triple triple : triples) {
+            add(triple);
+        }
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public void close() {
+        table.close();
+        dictionary.close();
+    }
+
+    @Override
+    public boolean contains(BlankNodeOrIRI subject, IRI predicate,
+                            RDFTerm object) {
+        return getTriples(subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        final int s = subject == null ? ANY : lookup(subject);
+        final int p = predicate == null ? ANY : lookup(predicate);
+        final int o = object == null ? ANY : lookup(object);
+        if ((subject != null && s == ANY) || (predicate != null && p == ANY)
+                || (object != null && o == ANY)) {
+            return 0;
+        }
+        if (s != ANY && p != ANY && o != ANY) {
+            return table.find(s, p, o) < 0 ? 0 : 1;
+        }
+        if (s == ANY && p == ANY && o == ANY) {
+            return table.size();
+        }
+        // Compare identifiers only, without creating any Triple objects
+        return streamPolicy.count(IntStream.range(0, table.size())
+                .filter(row -> table.matches(row, s, p, o)), table.size());
+    }
+
+    @Override
+    public long estimateCount(BlankNodeOrIRI subject, IRI predicate,
+                              RDFTerm object) {
+        if ((subject != null && lookup(subject) == ANY)
+                || (predicate != null && lookup(predicate) == ANY)
+                || (object != null && lookup(object) == ANY)) {
+            return 0;
+        }
+        if (subject != null && predicate != null && object != null) {
+            return count(subject, predicate, object);
+        }
+        return table.size();
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+        Objects.requireNonNull(triple);
+        int s = lookup(triple.getSubject());
+        int p = lookup(triple.getPredicate());
+        int o = lookup(triple.getObject());
+        return s != ANY && p != ANY && o != ANY && table.find(s, p, o) >= 0;
+    }
+
+    @Override
+    public Stream<Triple> getTriples() {
+        return streamPolicy.apply(StreamSupport.stream(new RowSpliterator(
+                this::triple, 0, table.size(), 0), false), table.size())
+                .unordered();
+    }
+
+    @Override
+    public Stream<Triple> getTriples(final BlankNodeOrIRI subject,
+                                     final IRI predicate, final RDFTerm object) {
+        final int s = subject == null ? ANY : lookup(subject);
+        final int p = predicate == null ? ANY : lookup(predicate);
+        final int o = object == null ? ANY : lookup(object);
+        if ((subject != null && s == ANY) || (predicate != null && p == ANY)
+                || (object != null && o == ANY)) {
+            // A term that was never added can't match anything
+            return Stream.empty();
+        }
+        if (s != ANY && p != ANY && o != ANY) {
+            int row = table.find(s, p, o);
+            return row < 0 ? Stream.empty() : Stream.of(triple(row));
+        }
+        return streamPolicy.apply(IntStream.range(0, table.size())
+                .filter(row -> table.matches(row, s, p, o))
+                .mapToObj(this::triple), table.size()).unordered();
+    }
+
+    @Override
+    public void remove(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        int s = subject == null ? ANY : lookup(subject);
+        int p = predicate == null ? ANY : lookup(predicate);
+        int o = object == null ? ANY : lookup(object);
+        if ((subject != null && s == ANY) || (predicate != null && p == ANY)
+                || (object != null && o == ANY)) {
+            return;
+        }
+        // Removing a row moves the last row into its place, so scan
+        // downwards to visit every row exactly once
+        for (int row = table.size() - 1; row >= 0; row--) {
+            if (table.matches(row, s, p, o)) {
+                table.removeRow(row);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Triple triple) {
+        Objects.requireNonNull(triple);
+        int s = lookup(triple.getSubject());
+        int p = lookup(triple.getPredicate());
+        int o = lookup(triple.getObject());
+        if (s != ANY && p != ANY && o != ANY) {
+            table.remove(s, p, o);
+        }
+    }
+
+    @Override
+    public long size() {
+        return table.size();
+    }
+
+    private int lookup(RDFTerm term) {
+        int id = dictionary.lookup(internallyMap(term));
+        return id == TermDictionary.NOT_FOUND ? ANY : id;
+    }
+
+    private Triple triple(int row) {
+        return factory.createTriple(
+                (BlankNodeOrIRI) dictionary.term(table.subject(row)),
+                (IRI) dictionary.term(table.predicate(row)),
+                dictionary.term(table.object(row)));
+    }
+
+}
@@ -0,0 +1,47 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+/**
+ * A {@link SimpleRDFTermFactory} whose graphs are dictionary-encoded.
+ * <p>
+ * All {@link Graph} instances created by this factory share one term
+ * dictionary, which assigns each distinct {@link RDFTerm} an <code>int</code>
+ * identifier, and store their triples as packed rows of identifiers. A triple
+ * then costs 20 to 40 bytes, plus its share of the dictionary, and
+ * {@link Triple} objects are only created as they are read from a graph.
+ * <p>
+ * The dictionary only grows, terms are kept for as long as this factory is
+ * reachable even if they are removed from all graphs. Like the graphs, it is
+ * not thread-safe; adding to two graphs of this factory from different
+ * threads requires external synchronization.
+ */
+public class DictionaryRDFTermFactory extends SimpleRDFTermFactory {
+
+    private final TermDictionary dictionary = new HashTermDictionary();
+
+    @Override
+    public Graph createGraph() {
+        return new DictionaryGraphImpl(this, dictionary);
+    }
+
+}
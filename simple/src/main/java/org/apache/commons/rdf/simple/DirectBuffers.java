@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocation and eager release of direct {@link ByteBuffer}s.
+ * <p>
+ * Direct memory is normally only released once the garbage collector finds
+ * the owning buffer unreachable, which may be long after a large graph has
+ * been closed. {@link #free(ByteBuffer)} releases it straight away where the
+ * JVM allows it, and otherwise leaves it to the garbage collector.
+ */
+final class DirectBuffers {
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Allocate a zeroed direct buffer in native byte order.
+     *
+     * @param bytes The capacity in bytes
+     * @return A new direct buffer
+     * @throws IllegalStateException If the capacity exceeds what a single
+     *                               buffer can address
+     */
+    static ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Can't allocate direct buffer of "
+                    + bytes + " bytes");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Release the memory of a direct buffer. The buffer, and any views of it,
+     * must not be used afterwards.
+     *
+     * @param buffer A buffer returned by {@link #allocate(long)}, or null
+     */
+    static void free(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+                    ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (NoSuchMethodException e) {
+            try {
+                // Java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (ReflectiveOperationException | RuntimeException ex) {
+                // Leave it to the garbage collector
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Leave it to the garbage collector
+        }
+    }
+
+}
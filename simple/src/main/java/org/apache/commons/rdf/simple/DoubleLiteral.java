@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFContext;
+
+/**
+ * An <code>xsd:double</code> or <code>xsd:float</code> literal holding a
+ * <code>double</code>.
+ */
+final class DoubleLiteral extends NativeLiteral {
+
+    private final double value;
+
+    DoubleLiteral(RDFContext context, double value) {
+        super(context, Types.XSD_DOUBLE);
+        this.value = value;
+    }
+
+    DoubleLiteral(RDFContext context, float value) {
+        super(context, Types.XSD_FLOAT);
+        this.value = value;
+    }
+
+    @Override
+    String format() {
+        return getDatatype() == Types.XSD_FLOAT ? Float.toString((float) value)
+                : Double.toString(value);
+    }
+
+    @Override
+    public float asFloat() {
+        return (float) value;
+    }
+
+    @Override
+    public double asDouble() {
+        return value;
+    }
+
+    @Override
+    public Object asDynamic() {
+        return getDatatype() == Types.XSD_FLOAT ? (Object) (float) value
+                : (Object) value;
+    }
+
+}
@@ -0,0 +1,36 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+/**
+ * A term or triple of this package that caches a 64-bit hash of itself.
+ *
+ * @see Hashing
+ */
+interface Fingerprinted {
+
+    /**
+     * Get a 64-bit hash, equal for equal objects and consistent with
+     * {@link Hashing#fingerprint(org.apache.commons.rdf.api.RDFTerm)}. Its
+     * folded 32 bits are the {@link Object#hashCode()}.
+     *
+     * @return The 64-bit hash
+     */
+    long fingerprint();
+
+}
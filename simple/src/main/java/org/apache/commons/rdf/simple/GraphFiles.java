@@ -0,0 +1,346 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reading and writing {@link Graph}s as binary graph files.
+ * <p>
+ * A graph file holds a term dictionary followed by the triples, sorted in
+ * three orders, as term identifiers. {@link #open(Path)} memory-maps the file
+ * and returns a read-only Graph straight away: nothing is parsed or validated
+ * up front, the operating system pages the file in as it is read, and terms
+ * are only decoded as triples are handed out. Patterns are answered by binary
+ * search in whichever order has the bound terms as a prefix.
+ * <p>
+ * All numbers are big-endian. The file starts with a header of five
+ * <code>int</code>s: the magic number <code>RDFG</code>, the format version,
+ * and the number of terms, triples and hash slots, then, after four bytes of
+ * padding, seven <code>long</code>s: the offsets of the six sections below
+ * and the length of the file. The sections are
+ * <ol>
+ * <li>term offsets: one <code>int</code> per term, plus one for the end of
+ * the last term, relative to the start of the term data</li>
+ * <li>hash slots: an open-addressing table of term identifiers plus one, by
+ * the hash of their encoding, with 0 marking an empty slot</li>
+ * <li>term data: the binary encoding of every term</li>
+ * <li>SPO, POS and OSP: the triples as rows of three identifiers, in subject,
+ * predicate and object order, in predicate, object and subject order, and in
+ * object, subject and predicate order, each sorted</li>
+ * </ol>
+ * Each section is mapped as a buffer of its own, so each section, rather than
+ * the whole file, can't be larger than 2 GB. This allows for about 2 GB of
+ * term data and 178 million triples.
+ */
+public final class GraphFiles {
+
+    static final int MAGIC = 0x52444647;
+    static final int VERSION = 2;
+
+    static final int TERMS = 8;
+    static final int TRIPLES = 12;
+    static final int SLOTS = 16;
+    static final int OFFSETS_SECTION = 24;
+    static final int SLOTS_SECTION = 32;
+    static final int DATA_SECTION = 40;
+    static final int SPO_SECTION = 48;
+    static final int POS_SECTION = 56;
+    static final int OSP_SECTION = 64;
+    static final int FILE_LENGTH = 72;
+    static final int HEADER_LENGTH = 80;
+
+    /** Number of sections, whose offsets follow each other in the header */
+    static final int SECTIONS = 6;
+
+    private GraphFiles() {
+    }
+
+    /**
+     * Write a graph to a graph file, replacing the file if it exists.
+     *
+     * @param graph The graph to write
+     * @param path  The file to write to
+     * @throws IOException If the file can't be written, or the graph is too
+     *                     large for a graph file
+     */
+    public static void write(Graph graph, Path path) throws IOException {
+        Map<RDFTerm, Integer> ids = new HashMap<>();
+        List<RDFTerm> terms = new ArrayList<>();
+        int[] spo = new int[(int) Math.min(Integer.MAX_VALUE / 3,
+                Math.max(16, graph.size())) * 3];
+        int triples = 0;
+        Iterator<? extends Triple> iterator = graph.getTriples().iterator();
+        while (iterator.hasNext()) {
+            Triple triple = iterator.next();
+            if (triples * 3 == spo.length) {
+                if (spo.length >= Integer.MAX_VALUE / 6 * 3) {
+                    throw new IOException("Too many triples for a graph file");
+                }
+                spo = Arrays.copyOf(spo, spo.length * 2);
+            }
+            spo[triples * 3] = id(triple.getSubject(), ids, terms);
+            spo[triples * 3 + 1] = id(triple.getPredicate(), ids, terms);
+            spo[triples * 3 + 2] = id(triple.getObject(), ids, terms);
+            triples++;
+        }
+
+        int termCount = terms.size();
+        int[] offsets = new int[termCount + 1];
+        long dataLength = 0;
+        for (int id = 0; id < termCount; id++) {
+            offsets[id] = (int) Math.min(dataLength, Integer.MAX_VALUE);
+            dataLength += TermCodec.encodedLength(terms.get(id));
+        }
+        offsets[termCount] = (int) Math.min(dataLength, Integer.MAX_VALUE);
+        int slotCount = Integer.highestOneBit(Math.max(1, termCount) * 2 - 1) * 2;
+
+        long offsetsSection = HEADER_LENGTH;
+        long slotsSection = offsetsSection + 4L * (termCount + 1);
+        long dataSection = slotsSection + 4L * slotCount;
+        // keep the triples aligned
+        long spoSection = (dataSection + dataLength + 3) & ~3L;
+        long posSection = spoSection + 12L * triples;
+        long ospSection = posSection + 12L * triples;
+        long fileLength = ospSection + 12L * triples;
+        if (dataLength > Integer.MAX_VALUE || 4L * slotCount > Integer.MAX_VALUE
+                || 12L * triples > Integer.MAX_VALUE) {
+            throw new IOException("Graph too large for a graph file: "
+                    + dataLength + " bytes of terms, " + triples + " triples");
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Set the length up front, as the sections are mapped one by one
+            channel.write(ByteBuffer.allocate(1), fileLength - 1);
+            List<MappedByteBuffer> mapped = new ArrayList<>();
+            try {
+                map(channel, 0, HEADER_LENGTH, mapped).putInt(MAGIC)
+                        .putInt(VERSION).putInt(termCount).putInt(triples)
+                        .putInt(slotCount).putInt(0)
+                        .putLong(offsetsSection).putLong(slotsSection)
+                        .putLong(dataSection).putLong(spoSection)
+                        .putLong(posSection).putLong(ospSection)
+                        .putLong(fileLength);
+                map(channel, offsetsSection, slotsSection - offsetsSection, mapped)
+                        .asIntBuffer().put(offsets);
+
+                int[] slots = new int[slotCount];
+                ByteBuffer data = map(channel, dataSection, dataLength, mapped);
+                for (int id = 0; id < termCount; id++) {
+                    int start = data.position();
+                    TermCodec.encode(terms.get(id), data);
+                    int hash = TermCodec.hash(data, start, data.position() - start);
+                    int slot = hash & (slotCount - 1);
+                    while (slots[slot] != 0) {
+                        slot = (slot + 1) & (slotCount - 1);
+                    }
+                    slots[slot] = id + 1;
+                }
+                map(channel, slotsSection, dataSection - slotsSection, mapped)
+                        .asIntBuffer().put(slots);
+
+                map(channel, spoSection, 12L * triples, mapped).asIntBuffer()
+                        .put(sorted(spo, triples, 0, 1, 2, termCount));
+                map(channel, posSection, 12L * triples, mapped).asIntBuffer()
+                        .put(sorted(spo, triples, 1, 2, 0, termCount));
+                map(channel, ospSection, 12L * triples, mapped).asIntBuffer()
+                        .put(sorted(spo, triples, 2, 0, 1, termCount));
+                for (MappedByteBuffer buffer : mapped) {
+                    buffer.force();
+                }
+            } finally {
+                for (MappedByteBuffer buffer : mapped) {
+                    DirectBuffers.free(buffer);
+                }
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start,
+                                        long length, List<MappedByteBuffer> mapped)
+            throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                start, length);
+        mapped.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Open a graph file as a read-only graph, creating terms with a new
+     * {@link SimpleRDFTermFactory}.
+     *
+     * @param path The graph file to open
+     * @return A read-only graph, which should be closed when done with
+     * @throws IOException If the file can't be read, or is not a graph file
+     */
+    public static Graph open(Path path) throws IOException {
+        return open(path, new SimpleRDFTermFactory());
+    }
+
+    /**
+     * Open a graph file as a read-only graph.
+     * <p>
+     * The file is memory-mapped, so opening it takes the same short time
+     * whatever its size. Blank nodes keep their
+     * {@link BlankNode#uniqueReference()}, so they are equal to the blank
+     * nodes of the graph that was written.
+     *
+     * @param path    The graph file to open
+     * @param factory The factory to create triples and terms with
+     * @return A read-only graph, which should be closed when done with
+     * @throws IOException If the file can't be read, or is not a graph file
+     */
+    public static Graph open(Path path, RDFContext factory) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Not a graph file: " + path);
+                }
+            }
+            if (!isValid(header, size)) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            // The mappings stay valid after the channel is closed
+            ByteBuffer[] sections = new ByteBuffer[SECTIONS];
+            try {
+                for (int i = 0; i < SECTIONS; i++) {
+                    long start = header.getLong(OFFSETS_SECTION + 8 * i);
+                    sections[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            start, header.getLong(OFFSETS_SECTION + 8 * (i + 1))
+                                    - start);
+                }
+            } catch (IOException | RuntimeException e) {
+                free(sections);
+                throw e;
+            }
+            // The term data ends within its section
+            int dataLength = sections[0].getInt(4 * header.getInt(TERMS));
+            if (dataLength < 0 || dataLength > sections[2].capacity()) {
+                free(sections);
+                throw new IOException("Not a graph file: " + path);
+            }
+            return new MappedGraphImpl(factory, header, sections);
+        }
+    }
+
+    private static boolean isValid(ByteBuffer header, long size) {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION
+                || header.getLong(FILE_LENGTH) != size) {
+            return false;
+        }
+        long terms = header.getInt(TERMS);
+        long triples = header.getInt(TRIPLES);
+        int slots = header.getInt(SLOTS);
+        if (!(terms >= 0 && triples >= 0 && slots > terms
+                && Integer.bitCount(slots) == 1
+                && header.getLong(OFFSETS_SECTION) == HEADER_LENGTH
+                && header.getLong(SLOTS_SECTION) == HEADER_LENGTH + 4 * (terms + 1)
+                && header.getLong(DATA_SECTION) == header.getLong(SLOTS_SECTION) + 4L * slots
+                && header.getLong(SPO_SECTION) >= header.getLong(DATA_SECTION)
+                && header.getLong(SPO_SECTION) % 4 == 0
+                && header.getLong(POS_SECTION) == header.getLong(SPO_SECTION) + 12 * triples
+                && header.getLong(OSP_SECTION) == header.getLong(POS_SECTION) + 12 * triples
+                && size == header.getLong(OSP_SECTION) + 12 * triples)) {
+            return false;
+        }
+        // Each section fits in a buffer
+        for (int i = 0; i < SECTIONS; i++) {
+            if (header.getLong(OFFSETS_SECTION + 8 * (i + 1))
+                    - header.getLong(OFFSETS_SECTION + 8 * i) > Integer.MAX_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void free(ByteBuffer[] sections) {
+        for (ByteBuffer section : sections) {
+            DirectBuffers.free(section);
+        }
+    }
+
+    private static int id(RDFTerm term, Map<RDFTerm, Integer> ids,
+                          List<RDFTerm> terms) {
+        Integer id = ids.get(term);
+        if (id == null) {
+            id = terms.size();
+            ids.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    /**
+     * Reorder the columns of the given rows and sort them, using a stable
+     * counting sort on each column from last to first.
+     */
+    private static int[] sorted(int[] rows, int count, int first, int second,
+                                int third, int terms) {
+        int[] result = new int[count * 3];
+        for (int row = 0; row < count; row++) {
+            result[row * 3] = rows[row * 3 + first];
+            result[row * 3 + 1] = rows[row * 3 + second];
+            result[row * 3 + 2] = rows[row * 3 + third];
+        }
+        int[] scratch = new int[count * 3];
+        int[] starts = new int[terms + 1];
+        for (int column = 2; column >= 0; column--) {
+            Arrays.fill(starts, 0);
+            for (int row = 0; row < count; row++) {
+                starts[result[row * 3 + column] + 1]++;
+            }
+            for (int id = 0; id < terms; id++) {
+                starts[id + 1] += starts[id];
+            }
+            for (int row = 0; row < count; row++) {
+                int to = starts[result[row * 3 + column]]++ * 3;
+                System.arraycopy(result, row * 3, scratch, to, 3);
+            }
+            int[] swap = result;
+            result = scratch;
+            scratch = swap;
+        }
+        return result;
+    }
+
+}
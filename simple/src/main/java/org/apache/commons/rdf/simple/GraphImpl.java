@@ -19,29 +19,35 @@ package org.apache.commons.rdf.simple;
 
 import org.apache.commons.rdf.api.*;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A simple, memory-based implementation of Graph.
  * <p>
- * {@link Triple}s in the graph are kept in a {@link Set}.
+ * {@link Triple}s in the graph are kept in a list, with a {@link Map} from
+ * each triple to its position. Fully bound patterns are looked up in the map;
+ * other patterns are matched by scanning the list. Removing a triple moves
+ * the last triple of the list into its place.
  * <p>
- * All Stream operations are performed using parallel and unordered directives.
+ * All Stream operations are performed using unordered directives, and are
+ * sequential or parallel as set by the {@link StreamPolicy} of the factory
+ * for the size of the graph. Streams split the list into halves of exactly
+ * known size.
  */
-final class GraphImpl extends RDFImpl implements Graph {
+final class GraphImpl extends AbstractGraph {
 
-    private static final int TO_STRING_MAX = 10;
-    private final Set<Triple> triples = new HashSet<Triple>();
-    private final RDFContext factory;
+    private ArrayList<Triple> triples = new ArrayList<>();
+    private Map<Triple, Integer> positions = new HashMap<>();
 
     GraphImpl(RDFContext factory) {
         super(factory);
-        this.factory = factory;
     }
 
     @Override
@@ -50,75 +56,62 @@ final class GraphImpl extends RDFImpl implements Graph {
         IRI newPredicate = (IRI) internallyMap(predicate);
         RDFTerm newObject = internallyMap(object);
         Triple result = factory.createTriple(newSubject, newPredicate, newObject);
-        triples.add(result);
+        insert(result);
     }
 
     @Override
     public void add(Triple triple) {
-        BlankNodeOrIRI newSubject = (BlankNodeOrIRI) internallyMap(triple
-                .getSubject());
-        IRI newPredicate = (IRI) internallyMap(triple.getPredicate());
-        RDFTerm newObject = internallyMap(triple.getObject());
-        // Check if any of the object references changed during the mapping, to
-        // avoid creating a new Triple object if possible
-        if (newSubject == triple.getSubject()
-                && newPredicate == triple.getPredicate()
-                && newObject == triple.getObject()) {
+        insert(internallyMap(triple));
+    }
+
+    private void insert(Triple triple) {
+        if (positions.putIfAbsent(triple, triples.size()) == null) {
             triples.add(triple);
-        } else {
-            Triple result = factory.createTriple(newSubject, newPredicate,
-                    newObject);
-            triples.add(result);
         }
     }
 
-    private <T extends RDFTerm> RDFTerm internallyMap(T object) {
-        if (object instanceof BlankNode && !(object instanceof BlankNodeImpl)) {
-            BlankNode blankNode = (BlankNode) object;
-            // This guarantees that adding the same BlankNode multiple times to
-            // this graph will generate a local object that is mapped to an
-            // equivalent object, based on the code in the package private
-            // BlankNodeImpl class
-            return factory.createBlankNode(blankNode.uniqueReference());
-        } else if (object instanceof IRI && !(object instanceof IRIImpl)) {
-            IRI iri = (IRI) object;
-            return factory.createIRI(iri.getIRIString());
-        } else if (object instanceof Literal
-                && !(object instanceof LiteralImpl)) {
-            Literal literal = (Literal) object;
-            if (literal.getLanguageTag().isPresent()) {
-                return factory.createLiteral(literal.getLexicalForm(), literal
-                        .getLanguageTag().get());
-            } else {
-                return factory.createLiteral(literal.getLexicalForm(),
-                        (IRI) internallyMap(literal.getDatatype()));
-            }
-        } else {
-            // The object is a local implementation, and is not a BlankNode, so
-            // can be returned directly
-            return object;
+    @Override
+    public void addAll(Iterable<? extends Triple> newTriples, long sizeHint,
+                       boolean deferIndexing) {
+        if (triples.isEmpty() && sizeHint > 0) {
+            // Size the map up front rather than rehashing it as it grows
+            positions = new HashMap<>((int) Math.min(Integer.MAX_VALUE / 2,
+                    sizeHint * 4 / 3 + 1));
+            triples.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8,
+                    sizeHint));
+        }
+        for (Triple triple : newTriples) {
+            insert(internallyMap(triple));
         }
     }
 
     @Override
     public void clear() {
         triples.clear();
+        positions.clear();
     }
 
     @Override
     public boolean contains(BlankNodeOrIRI subject, IRI predicate,
                             RDFTerm object) {
-        return getTriples(subject, predicate, object).findFirst().isPresent();
+        if (subject != null && predicate != null && object != null) {
+            return positions.containsKey(factory.createTriple(
+                    (BlankNodeOrIRI) internallyMap(subject),
+                    (IRI) internallyMap(predicate), internallyMap(object)));
+        }
+        return getTriples(subject, predicate, object).findAny().isPresent();
     }
 
     @Override
     public boolean contains(Triple triple) {
-        return triples.contains(Objects.requireNonNull(triple));
+        return positions.containsKey(Objects.requireNonNull(triple));
     }
 
     @Override
     public Stream<Triple> getTriples() {
-        return triples.parallelStream().unordered();
+        return streamPolicy.apply(StreamSupport.stream(new RowSpliterator(
+                triples::get, 0, triples.size(), 0), false), triples.size())
+                .unordered();
     }
 
     @Override
@@ -127,6 +120,12 @@ final class GraphImpl extends RDFImpl implements Graph {
         final BlankNodeOrIRI newSubject = (BlankNodeOrIRI) internallyMap(subject);
         final IRI newPredicate = (IRI) internallyMap(predicate);
         final RDFTerm newObject = internallyMap(object);
+        if (subject != null && predicate != null && object != null) {
+            Triple triple = factory.createTriple(newSubject, newPredicate,
+                    newObject);
+            return positions.containsKey(triple) ? Stream.of(triple)
+                    : Stream.empty();
+        }
 
         return getTriples(t -> {
             // Lacking the requirement for .equals() we have to be silly
@@ -159,7 +158,15 @@ final class GraphImpl extends RDFImpl implements Graph {
 
     @Override
     public void remove(Triple triple) {
-        triples.remove(Objects.requireNonNull(triple));
+        Integer position = positions.remove(Objects.requireNonNull(triple));
+        if (position == null) {
+            return;
+        }
+        Triple last = triples.remove(triples.size() - 1);
+        if (position < triples.size()) {
+            triples.set(position, last);
+            positions.put(last, position);
+        }
     }
 
     @Override
@@ -167,15 +174,4 @@ final class GraphImpl extends RDFImpl implements Graph {
         return triples.size();
     }
 
-    @Override
-    public String toString() {
-        String s = getTriples().limit(TO_STRING_MAX).map(Object::toString)
-                .collect(Collectors.joining("\n"));
-        if (size() > TO_STRING_MAX) {
-            return s + "\n# ... +" + (size() - TO_STRING_MAX) + " more";
-        } else {
-            return s;
-        }
-    }
-
 }
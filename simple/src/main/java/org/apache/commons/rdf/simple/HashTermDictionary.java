@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFTerm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link TermDictionary} kept on the heap in a {@link HashMap}.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class HashTermDictionary implements TermDictionary {
+
+    private final Map<RDFTerm, Integer> ids = new HashMap<>();
+    private final List<RDFTerm> terms = new ArrayList<>();
+
+    @Override
+    public int intern(RDFTerm term) {
+        Integer id = ids.get(term);
+        if (id != null) {
+            return id;
+        }
+        int newId = terms.size();
+        terms.add(term);
+        ids.put(term, newId);
+        return newId;
+    }
+
+    @Override
+    public int lookup(RDFTerm term) {
+        Integer id = ids.get(term);
+        return id == null ? NOT_FOUND : id;
+    }
+
+    @Override
+    public RDFTerm term(int id) {
+        return terms.get(id);
+    }
+
+    @Override
+    public int size() {
+        return terms.size();
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * Allocation-free 64-bit hashing of terms and triples.
+ * <p>
+ * Strings are hashed character by character and every combination step is
+ * followed by the MurmurHash3 finalizer, so that all bits of a hash depend on
+ * all of its input. Each kind of term starts from its own seed, so that e.g.
+ * an IRI and a plain literal with the same string do not collide.
+ * <p>
+ * The implementations of this package compute their hash once and keep it,
+ * see {@link Fingerprinted}.
+ */
+final class Hashing {
+
+    private static final long IRI_SEED = 0x9E3779B97F4A7C15L;
+    private static final long BLANK_NODE_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long LITERAL_SEED = 0x165667B19E3779F9L;
+    private static final long TRIPLE_SEED = 0x27D4EB2F165667C5L;
+
+    private Hashing() {
+    }
+
+    /**
+     * Get the 64-bit hash of any term, using its cached hash if it is a
+     * {@link Fingerprinted} term of this package.
+     *
+     * @param term The term to hash
+     * @return The 64-bit hash of the term
+     */
+    static long fingerprint(RDFTerm term) {
+        if (term instanceof Fingerprinted) {
+            return ((Fingerprinted) term).fingerprint();
+        } else if (term instanceof IRI) {
+            return iri(((IRI) term).getIRIString());
+        } else if (term instanceof BlankNode) {
+            return blankNode(((BlankNode) term).uniqueReference());
+        }
+        Literal literal = (Literal) term;
+        return literal(literal.getLexicalForm(), literal.getDatatype(),
+                literal.getLanguageTag().orElse(null));
+    }
+
+    static long iri(String iri) {
+        return mix(string(IRI_SEED, iri));
+    }
+
+    static long blankNode(String uniqueReference) {
+        return mix(string(BLANK_NODE_SEED, uniqueReference));
+    }
+
+    /**
+     * Hash a blank node identified by a number rather than by its reference.
+     */
+    static long blankNode(long id) {
+        return mix(BLANK_NODE_SEED ^ id);
+    }
+
+    static long literal(String lexicalForm, IRI dataType, String languageTag) {
+        long h = mix(string(LITERAL_SEED, lexicalForm));
+        h = mix(h ^ fingerprint(dataType));
+        return languageTag == null ? h : mix(string(h, languageTag));
+    }
+
+    static long triple(RDFTerm subject, RDFTerm predicate, RDFTerm object) {
+        long h = mix(TRIPLE_SEED ^ fingerprint(subject));
+        h = mix(h ^ fingerprint(predicate));
+        return mix(h ^ fingerprint(object));
+    }
+
+    /**
+     * Fold a 64-bit hash into a hash code.
+     */
+    static int hashCode(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    private static long string(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        }
+        return h ^ s.length();
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85A3BL;
+        return h ^ (h >>> 33);
+    }
+
+}
@@ -21,22 +21,42 @@ import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.Immutable;
 import org.apache.commons.rdf.api.RDFContext;
 
-import java.net.URI;
+import java.io.IOException;
+import java.util.Objects;
 
 /**
  * A simple implementation of IRI.
  */
-final class IRIImpl extends RDFImpl implements IRI {
+final class IRIImpl extends RDFImpl implements IRI, Fingerprinted {
 
     private final String iri;
+    /** Computed when first needed, 0 until then */
+    private volatile long fingerprint;
 
     public IRIImpl(RDFContext context,String iri) {
+        this(context, iri, true);
+    }
+
+    private IRIImpl(RDFContext context, String iri, boolean validate) {
         super(context);
-        // should throw IllegalArgumentException on most illegal IRIs
-        URI.create(iri);
-        // NOTE: We don't keep the URI as it uses outdated RFC2396 and will get
-        // some IDNs wrong
-        this.iri = iri;
+        this.iri = Objects.requireNonNull(iri);
+        if (validate) {
+            IRIValidator.STRICT.validate(iri);
+        }
+    }
+
+    /**
+     * Recreate an IRI without validating it again, e.g. when reading it back
+     * from storage it was written to by this package.
+     *
+     * @param context The context of the IRI
+     * @param iri     An IRI string that has been validated before
+     * @return An IRI with the given IRI string
+     */
+    static IRI fromTrusted(RDFContext context, String iri) {
+        // Reuse any IRI objects already created in Types
+        IRI type = Types.lookup(iri);
+        return type != null ? type : new IRIImpl(context, iri, false);
     }
 
     @Override
@@ -49,6 +69,11 @@ final class IRIImpl extends RDFImpl implements IRI {
         return "<" + getIRIString() + ">";
     }
 
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        out.append('<').append(iri).append('>');
+    }
+
     @Override
     public String toString() {
         return ntriplesString();
@@ -66,9 +91,18 @@ final class IRIImpl extends RDFImpl implements IRI {
         return getIRIString().equals(other.getIRIString());
     }
 
+    @Override
+    public long fingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            fingerprint = h = Hashing.iri(iri);
+        }
+        return h;
+    }
+
     @Override
     public int hashCode() {
-        return iri.hashCode();
+        return Hashing.hashCode(fingerprint());
     }
 
 }
@@ -0,0 +1,336 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+/**
+ * How IRI strings are validated by
+ * {@link SimpleRDFTermFactory#createIRI(String)}.
+ * <p>
+ * All modes check the string in a single pass over its characters, without
+ * allocating objects.
+ */
+public enum IRIValidator {
+
+    /**
+     * Accept only strings matching the <code>IRI-reference</code> rule of
+     * <a href="https://tools.ietf.org/html/rfc3987">RFC 3987</a>, i.e.
+     * absolute or relative IRIs.
+     */
+    STRICT {
+        @Override
+        public boolean isValid(String iri) {
+            return new Strict(iri).iriReference();
+        }
+    },
+
+    /**
+     * Accept any string without the characters that cannot appear in an
+     * N-Triples <code>IRIREF</code>: controls, space and
+     * <code>&lt;&gt;"{}|^`\</code>.
+     */
+    LENIENT {
+        @Override
+        public boolean isValid(String iri) {
+            for (int i = 0; i < iri.length(); i++) {
+                char c = iri.charAt(i);
+                if (c <= ' ' || c == '<' || c == '>' || c == '"' || c == '{'
+                        || c == '}' || c == '|' || c == '^' || c == '`'
+                        || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    },
+
+    /**
+     * Accept any string, for IRIs known to be valid, e.g. because they were
+     * validated when written.
+     */
+    TRUSTED {
+        @Override
+        public boolean isValid(String iri) {
+            return true;
+        }
+    };
+
+    /**
+     * Check if an IRI string is valid in this mode.
+     *
+     * @param iri The IRI string to check
+     * @return true if the IRI is valid
+     */
+    public abstract boolean isValid(String iri);
+
+    /**
+     * Check that an IRI string is valid in this mode.
+     *
+     * @param iri The IRI string to check
+     * @return The IRI string
+     * @throws IllegalArgumentException If the IRI is not valid
+     */
+    public String validate(String iri) {
+        if (!isValid(iri)) {
+            throw new IllegalArgumentException("Invalid IRI: " + iri);
+        }
+        return iri;
+    }
+
+    /**
+     * A recursive descent matcher of RFC 3987 <code>IRI-reference</code>s.
+     * It is a small object that escape analysis usually keeps off the heap.
+     */
+    private static final class Strict {
+
+        private final String s;
+        private final int end;
+        private int pos;
+
+        Strict(String s) {
+            this.s = s;
+            this.end = s.length();
+        }
+
+        boolean iriReference() {
+            int colon = schemeEnd();
+            if (colon >= 0) {
+                pos = colon + 1;
+            } else if (colon == -2) {
+                // A colon in the first segment of a relative reference
+                return false;
+            }
+            if (s.startsWith("//", pos)) {
+                pos += 2;
+                if (!authority()) {
+                    return false;
+                }
+            }
+            return chars(PATH, '?') && (!skip('?') || chars(QUERY, '#'))
+                    && (!skip('#') || chars(FRAGMENT, -1)) && pos == end;
+        }
+
+        /**
+         * Find the colon ending the scheme.
+         *
+         * @return The position of the colon, -1 if there is no scheme or -2
+         * if the first segment has a colon but is not a scheme
+         */
+        private int schemeEnd() {
+            for (int i = 0; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == ':') {
+                    return i > 0 ? i : -2;
+                } else if (c == '/' || c == '?' || c == '#') {
+                    return -1;
+                } else if (!isAlpha(c) && (i == 0 || !(isDigit(c)
+                        || c == '+' || c == '-' || c == '.'))) {
+                    // Not a scheme, but a colon may still follow
+                    for (int j = i + 1; j < end; j++) {
+                        c = s.charAt(j);
+                        if (c == ':') {
+                            return -2;
+                        } else if (c == '/' || c == '?' || c == '#') {
+                            return -1;
+                        }
+                    }
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean authority() {
+            int start = pos;
+            int at = -1;
+            int stop = end;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == '/' || c == '?' || c == '#') {
+                    stop = i;
+                    break;
+                } else if (c == '@' && at < 0) {
+                    at = i;
+                }
+            }
+            if (at >= 0) {
+                if (!chars(USERINFO, '@') || pos != at) {
+                    return false;
+                }
+                pos++;
+            }
+            if (pos < stop && s.charAt(pos) == '[') {
+                if (!ipLiteral()) {
+                    return false;
+                }
+            } else if (!chars(REG_NAME, ':')) {
+                return false;
+            }
+            if (skip(':')) {
+                while (pos < end && isDigit(s.charAt(pos))) {
+                    pos++;
+                }
+            }
+            return pos == stop;
+        }
+
+        /**
+         * Match an <code>IP-literal</code>, checking its characters but not
+         * the structure of IPv6 addresses.
+         */
+        private boolean ipLiteral() {
+            pos++;
+            if (pos < end && (s.charAt(pos) == 'v' || s.charAt(pos) == 'V')) {
+                int hex = ++pos;
+                while (pos < end && isHexDigit(s.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == hex || !skip('.')) {
+                    return false;
+                }
+                int start = pos;
+                for (char c; pos < end && (c = s.charAt(pos)) != ']'; pos++) {
+                    if (!(isUnreserved(c) || isSubDelim(c) || c == ':')) {
+                        return false;
+                    }
+                }
+                return pos > start && skip(']');
+            }
+            int start = pos;
+            for (char c; pos < end && (c = s.charAt(pos)) != ']'; pos++) {
+                if (!(isHexDigit(c) || c == ':' || c == '.')) {
+                    return false;
+                }
+            }
+            return pos > start && skip(']');
+        }
+
+        /**
+         * Match characters of the given kind up to a delimiter or the end.
+         *
+         * @param kind One of {@link #PATH}, {@link #QUERY}, {@link #FRAGMENT},
+         *             {@link #USERINFO} or {@link #REG_NAME}
+         * @param stop The delimiter, or -1 to match up to the end
+         * @return false if an invalid character was found before the
+         * delimiter
+         */
+        private boolean chars(int kind, int stop) {
+            while (pos < end) {
+                int c = s.codePointAt(pos);
+                if (c == stop) {
+                    return true;
+                }
+                if (c == '%') {
+                    if (pos + 2 >= end || !isHexDigit(s.charAt(pos + 1))
+                            || !isHexDigit(s.charAt(pos + 2))) {
+                        return false;
+                    }
+                    pos += 3;
+                    continue;
+                }
+                if (!isAllowed(kind, c)) {
+                    // Leave delimiters of later components to the caller
+                    return kind == PATH && c == '#'
+                            || kind == REG_NAME && (c == '/' || c == '?'
+                            || c == '#');
+                }
+                pos += Character.charCount(c);
+            }
+            return true;
+        }
+
+        private boolean skip(char c) {
+            if (pos < end && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private static final int PATH = 0;
+        private static final int QUERY = 1;
+        private static final int FRAGMENT = 2;
+        private static final int USERINFO = 3;
+        private static final int REG_NAME = 4;
+
+        private static boolean isAllowed(int kind, int c) {
+            if (isUnreserved(c) || isSubDelim(c)) {
+                return true;
+            }
+            switch (kind) {
+                case PATH:
+                    return c == ':' || c == '@' || c == '/';
+                case QUERY:
+                    return c == ':' || c == '@' || c == '/' || c == '?'
+                            || isPrivate(c);
+                case FRAGMENT:
+                    return c == ':' || c == '@' || c == '/' || c == '?';
+                case USERINFO:
+                    return c == ':';
+                default:
+                    return false;
+            }
+        }
+
+        private static boolean isUnreserved(int c) {
+            return isAlpha(c) || isDigit(c) || c == '-' || c == '.' || c == '_'
+                    || c == '~' || isUcsChar(c);
+        }
+
+        private static boolean isSubDelim(int c) {
+            switch (c) {
+                case '!': case '$': case '&': case '\'': case '(': case ')':
+                case '*': case '+': case ',': case ';': case '=':
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private static boolean isUcsChar(int c) {
+            if (c < 0xA0) {
+                return false;
+            } else if (c < 0x10000) {
+                return c <= 0xD7FF || c >= 0xF900 && c <= 0xFDCF
+                        || c >= 0xFDF0 && c <= 0xFFEF;
+            }
+            // Planes 1 to 14, but not their last two code points nor
+            // plane 14's private use area
+            int low = c & 0xFFFF;
+            return c < 0xF0000 && low <= 0xFFFD
+                    && (c < 0xE0000 || c >= 0xE1000);
+        }
+
+        private static boolean isPrivate(int c) {
+            return c >= 0xE000 && c <= 0xF8FF
+                    || c >= 0xF0000 && (c & 0xFFFF) <= 0xFFFD && c <= 0x10FFFD;
+        }
+
+        private static boolean isAlpha(int c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+        }
+
+        private static boolean isDigit(int c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isHexDigit(int c) {
+            return isDigit(c) || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A memory-based implementation of Graph with permuted triple indexes.
+ * <p>
+ * {@link Triple}s in the graph are kept in a {@link TripleIndex}, so that
+ * {@link #contains(BlankNodeOrIRI, IRI, RDFTerm)},
+ * {@link #getTriples(BlankNodeOrIRI, IRI, RDFTerm)} and
+ * {@link #remove(BlankNodeOrIRI, IRI, RDFTerm)} cost time in proportion to
+ * the number of matching triples rather than the size of the graph, and
+ * {@link #count(BlankNodeOrIRI, IRI, RDFTerm)} takes constant time.
+ * <p>
+ * Streams over the whole graph are unordered, and parallel as set by the
+ * {@link StreamPolicy} of the factory, as for {@link GraphImpl}; streams over
+ * a pattern with any bound term are sequential, as they are expected to be
+ * selective.
+ */
+final class IndexedGraphImpl extends AbstractGraph {
+
+    private final TripleIndex index = new TripleIndex();
+
+    IndexedGraphImpl(RDFContext factory) {
+        super(factory);
+    }
+
+    @Override
+    public void add(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        BlankNodeOrIRI newSubject = (BlankNodeOrIRI) internallyMap(subject);
+        IRI newPredicate = (IRI) internallyMap(predicate);
+        RDFTerm newObject = internallyMap(object);
+        index.add(factory.createTriple(newSubject, newPredicate, newObject));
+    }
+
+    @Override
+    public void add(Triple triple) {
+        index.add(internallyMap(triple));
+    }
+
+    @Override
+    public void addAll(Iterable<? extends Triple> triples, long sizeHint,
+                       boolean deferIndexing) {
+        if (!deferIndexing) {
+            for (Triple triple : triples) {
+                add(triple);
+            }
+            return;
+        }
+        index.reserveDeferred(sizeHint);
+        for (Triple triple : triples) {
+            index.addDeferred(internallyMap(triple));
+        }
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    @Override
+    public boolean contains(BlankNodeOrIRI subject, IRI predicate,
+                            RDFTerm object) {
+        return getTriples(subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        return index.count((BlankNodeOrIRI) internallyMap(subject),
+                (IRI) internallyMap(predicate), internallyMap(object));
+    }
+
+    @Override
+    public long estimateCount(BlankNodeOrIRI subject, IRI predicate,
+                              RDFTerm object) {
+        return count(subject, predicate, object);
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+        return index.contains(internallyMap(Objects.requireNonNull(triple)));
+    }
+
+    @Override
+    public Stream<Triple> getTriples() {
+        return streamPolicy.apply(
+                StreamSupport.stream(index.spliterator(), false), index.size())
+                .unordered();
+    }
+
+    @Override
+    public Stream<Triple> getTriples(final BlankNodeOrIRI subject,
+                                     final IRI predicate, final RDFTerm object) {
+        if (subject == null && predicate == null && object == null) {
+            return getTriples();
+        }
+        return index.match((BlankNodeOrIRI) internallyMap(subject),
+                (IRI) internallyMap(predicate), internallyMap(object));
+    }
+
+    @Override
+    public void remove(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        // Collect first, as the match is a view over the index being changed
+        List<Triple> toRemove = getTriples(subject, predicate, object)
+                .collect(Collectors.toList());
+        for (Triple t : toRemove) {
+            index.remove(t);
+        }
+    }
+
+    @Override
+    public void remove(Triple triple) {
+        index.remove(internallyMap(Objects.requireNonNull(triple)));
+    }
+
+    @Override
+    public long size() {
+        return index.size();
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.util.IllformedLocaleException;
+import java.util.Locale;
+
+/**
+ * Canonicalizes language tags.
+ * <p>
+ * Tags are validated and lower-cased once per distinct tag, and kept in a
+ * shared bounded cache, so that literals with equal tags share one
+ * <code>String</code> instance. Unlike {@link String#intern()}, the cache does
+ * not grow without bound when given many distinct tags.
+ */
+final class LanguageTags {
+
+    /** Far more distinct tags than found in any real data */
+    private static final int CACHE_SIZE = 4096;
+
+    private static final BoundedCache<String, String> TAGS =
+            new BoundedCache<>(CACHE_SIZE);
+
+    private LanguageTags() {
+    }
+
+    /**
+     * Get the canonical form of a language tag.
+     *
+     * @param languageTag The language tag, in any case
+     * @return The lower case language tag, as a shared instance
+     * @throws IllegalArgumentException If the language tag is not valid
+     */
+    static String canonical(String languageTag) {
+        return TAGS.get(languageTag, tag -> {
+            String lower = tag.toLowerCase(Locale.ENGLISH);
+            // Share the instance of the lower case tag
+            return lower.equals(tag) ? validate(tag)
+                    : TAGS.get(lower, LanguageTags::validate);
+        });
+    }
+
+    private static String validate(String languageTag) {
+        if (languageTag.isEmpty()) {
+            // TODO: Check against
+            // http://www.w3.org/TR/n-triples/#n-triples-grammar
+            throw new IllegalArgumentException("Language tag can't be null");
+        }
+        try {
+            new Locale.Builder().setLanguageTag(languageTag);
+        } catch (IllformedLocaleException ex) {
+            throw new IllegalArgumentException("Invalid languageTag: "
+                    + languageTag, ex);
+        }
+        return languageTag;
+    }
+
+}
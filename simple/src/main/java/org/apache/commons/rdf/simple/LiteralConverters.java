@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A registry of converters from Java values to literals, keyed by class, for
+ * {@link RDFContext#createLiteralDynamic(Object)}.
+ * <p>
+ * A value is converted by the converter registered for its class, or else
+ * for its nearest superclass, or else for the first of its interfaces found
+ * breadth-first. The converter found for each class is cached, also when
+ * none is found, so that converting a value costs one map lookup however
+ * many converters are registered. Registering a converter clears the cache.
+ * <p>
+ * This class is thread-safe, but converters should be registered before
+ * values are converted concurrently, as a conversion racing with a
+ * registration may keep using the converter found before.
+ */
+final class LiteralConverters {
+
+    /** Cached for classes no converter was found for */
+    private static final BiFunction<RDFContext, Object, Literal> NONE =
+            (context, value) -> {
+                throw new UnsupportedOperationException("createDynamic("
+                        + value.getClass() + ")");
+            };
+
+    private final Map<Class<?>, BiFunction<RDFContext, Object, Literal>> registered =
+            new ConcurrentHashMap<>();
+    private final Map<Class<?>, BiFunction<RDFContext, Object, Literal>> resolved =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Create a registry with the converters of the types supported by
+     * {@link RDFContext#createLiteralDynamic(Object)}, and of
+     * <code>Double</code> and <code>Float</code>.
+     */
+    LiteralConverters() {
+        register(String.class, (c, v) -> c.createLiteral(v));
+        register(Long.class, (c, v) -> c.createLiteral(v.longValue()));
+        register(Integer.class, (c, v) -> c.createLiteral(v.intValue()));
+        register(Short.class, (c, v) -> c.createLiteral(v.shortValue()));
+        register(Byte.class, (c, v) -> c.createLiteral(v.byteValue()));
+        register(Double.class, (c, v) -> c.createLiteral(v.doubleValue()));
+        register(Float.class, (c, v) -> c.createLiteral(v.floatValue()));
+        register(Boolean.class, (c, v) -> c.createLiteral(v.booleanValue()));
+        register(BigInteger.class, (c, v) -> c.createLiteral(v));
+        register(BigDecimal.class, (c, v) -> c.createLiteral(v));
+        register(OffsetDateTime.class, (c, v) -> c.createLiteral(v));
+        register(LocalDateTime.class, (c, v) -> c.createLiteral(v));
+        register(LocalDate.class, (c, v) -> c.createLiteral(v));
+        register(LocalTime.class, (c, v) -> c.createLiteral(v));
+        register(OffsetTime.class, (c, v) -> c.createLiteral(v));
+    }
+
+    /**
+     * Register a converter, replacing any converter registered for the same
+     * type.
+     *
+     * @param type      The type of values to convert, including subtypes
+     *                  that have no converter of their own
+     * @param converter Creates a literal from a value with the given context
+     * @param <T>       The type of values to convert
+     */
+    <T> void register(Class<T> type, BiFunction<? super RDFContext, ? super T,
+            ? extends Literal> converter) {
+        registered.put(type, (context, value) ->
+                converter.apply(context, type.cast(value)));
+        resolved.clear();
+    }
+
+    /**
+     * Convert a value to a literal.
+     *
+     * @param context The context to create the literal with
+     * @param value   The value to convert
+     * @return A literal of the value
+     * @throws UnsupportedOperationException If no converter is registered for
+     *                                       the type of the value
+     */
+    Literal convert(RDFContext context, Object value) {
+        Class<?> type = value.getClass();
+        BiFunction<RDFContext, Object, Literal> converter =
+                resolved.get(type);
+        if (converter == null) {
+            converter = resolved.computeIfAbsent(type, this::resolve);
+        }
+        return converter.apply(context, value);
+    }
+
+    private BiFunction<RDFContext, Object, Literal> resolve(Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            BiFunction<RDFContext, Object, Literal> converter =
+                    registered.get(c);
+            if (converter != null) {
+                return converter;
+            }
+        }
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> i = interfaces.remove();
+            BiFunction<RDFContext, Object, Literal> converter =
+                    registered.get(i);
+            if (converter != null) {
+                return converter;
+            }
+            for (Class<?> parent : i.getInterfaces()) {
+                interfaces.add(parent);
+            }
+        }
+        return NONE;
+    }
+
+}
@@ -18,25 +18,36 @@
 package org.apache.commons.rdf.simple;
 
 import org.apache.commons.rdf.api.IRI;
-import org.apache.commons.rdf.api.Immutable;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDFContext;
 
-import java.util.IllformedLocaleException;
-import java.util.Locale;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.Temporal;
 import java.util.Objects;
 import java.util.Optional;
 
 /**
  * A simple implementation of Literal.
+ * <p>
+ * The typed accessors such as {@link #asLong()} decode the lexical form once,
+ * with the parser its datatype has in {@link Types}, and keep the value.
+ * Numeric values are converted to the numeric type asked for, e.g. an
+ * <code>xsd:integer</code> to a <code>double</code>. Lexical forms the parser
+ * rejects, or that do not decode to a value of or convertible to the type
+ * asked for, are parsed by the default methods of {@link Literal} instead.
  */
-final class LiteralImpl extends RDFImpl implements Literal {
+final class LiteralImpl extends AbstractLiteral {
 
-    private static final String QUOTE = "\"";
+    /** Marks a value that has not been decoded yet */
+    private static final Object UNDECODED = new Object();
+    /** Marks a lexical form the parser of the datatype rejected */
+    private static final Object INVALID = new Object();
 
     private final IRI dataType;
     private final String languageTag;
     private final String lexicalForm;
+    private volatile Object value = UNDECODED;
 
     public LiteralImpl(RDFContext context,String literal) {
         this(context,literal, Types.XSD_STRING);
@@ -45,9 +56,8 @@ final class LiteralImpl extends RDFImpl implements Literal {
     public LiteralImpl(RDFContext context,String lexicalForm, IRI dataType) {
         super(context);
         this.lexicalForm = Objects.requireNonNull(lexicalForm);
-        this.dataType = Types.get(Objects.requireNonNull(dataType)).orElse(
-                dataType);
-        if (Types.RDF_LANGSTRING.equals(this.dataType)) {
+        this.dataType = Types.canonical(Objects.requireNonNull(dataType));
+        if (this.dataType == Types.RDF_LANGSTRING) {
             throw new IllegalArgumentException(
                     "Cannot create a non-language literal with type "
                             + Types.RDF_LANGSTRING);
@@ -58,24 +68,37 @@ final class LiteralImpl extends RDFImpl implements Literal {
     public LiteralImpl(RDFContext context,String literal, String languageTag) {
         super(context);
         this.lexicalForm = Objects.requireNonNull(literal);
-        this.languageTag = Objects.requireNonNull(languageTag).toLowerCase(
-                Locale.ENGLISH);
-        if (languageTag.isEmpty()) {
-            // TODO: Check against
-            // http://www.w3.org/TR/n-triples/#n-triples-grammar
-            throw new IllegalArgumentException("Language tag can't be null");
-        }
-        try {
-            new Locale.Builder().setLanguageTag(languageTag);
-        } catch (IllformedLocaleException ex) {
-            throw new IllegalArgumentException("Invalid languageTag: "
-                    + languageTag, ex);
-        }
-
-        // System.out.println(aLocale);
+        this.languageTag = LanguageTags.canonical(
+                Objects.requireNonNull(languageTag));
         this.dataType = Types.RDF_LANGSTRING;
     }
 
+    private LiteralImpl(RDFContext context, String lexicalForm, IRI dataType,
+                        String languageTag) {
+        super(context);
+        this.lexicalForm = Objects.requireNonNull(lexicalForm);
+        this.dataType = Objects.requireNonNull(dataType);
+        this.languageTag = languageTag;
+    }
+
+    /**
+     * Recreate a literal without validating it again, e.g. when reading it
+     * back from storage it was written to by this package.
+     *
+     * @param context     The context of the literal
+     * @param lexicalForm The lexical form
+     * @param dataType    The datatype, which must be
+     *                    {@link Types#RDF_LANGSTRING} if a language tag is
+     *                    given
+     * @param languageTag A lower case language tag, or null
+     * @return A literal with the given lexical form, datatype and language tag
+     */
+    static LiteralImpl fromTrusted(RDFContext context, String lexicalForm,
+                                   IRI dataType, String languageTag) {
+        return new LiteralImpl(context, lexicalForm, Types.canonical(dataType),
+                languageTag);
+    }
+
     @Override
     public IRI getDatatype() {
         return dataType;
@@ -91,51 +114,98 @@ final class LiteralImpl extends RDFImpl implements Literal {
         return lexicalForm;
     }
 
+    /**
+     * Get the value of the literal, decoding it on first use.
+     *
+     * @return The value, the lexical form if the datatype has no parser, or
+     * {@link #INVALID}
+     */
+    private Object value() {
+        Object result = value;
+        if (result == UNDECODED) {
+            try {
+                result = dataType instanceof Types
+                        ? ((Types) dataType).parse(lexicalForm) : lexicalForm;
+            } catch (RuntimeException e) {
+                result = INVALID;
+            }
+            value = result;
+        }
+        return result;
+    }
+
     @Override
-    public String ntriplesString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(QUOTE);
-        // Escape special characters
-        sb.append(getLexicalForm().replace("\\", "\\\\"). // escaped to \\
-                replace("\"", "\\\""). // escaped to \"
-                replace("\r", "\\r"). // escaped to \r
-                replace("\n", "\\n")); // escaped to \n
-        sb.append(QUOTE);
-
-        // getLanguageTag().ifPresent(s -> sb.append("@" + s));
-        if (getLanguageTag().isPresent()) {
-            sb.append("@");
-            sb.append(getLanguageTag().get());
-
-        } else if (!getDatatype().equals(Types.XSD_STRING)) {
-            sb.append("^^");
-            sb.append(getDatatype().ntriplesString());
+    public int asInteger() {
+        Object v = value();
+        if (v instanceof Long && (Long) v == ((Long) v).intValue()) {
+            return ((Long) v).intValue();
+        } else if (v instanceof BigInteger && ((BigInteger) v).bitLength() < 32) {
+            return ((BigInteger) v).intValue();
         }
-        return sb.toString();
+        return super.asInteger();
     }
 
     @Override
-    public String toString() {
-        return ntriplesString();
+    public long asLong() {
+        Object v = value();
+        if (v instanceof Long) {
+            return (Long) v;
+        } else if (v instanceof BigInteger && ((BigInteger) v).bitLength() < 64) {
+            return ((BigInteger) v).longValue();
+        }
+        return super.asLong();
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(dataType, lexicalForm, languageTag);
+    public float asFloat() {
+        Object v = value();
+        return v instanceof Number ? ((Number) v).floatValue()
+                : super.asFloat();
     }
 
     @Override
-    public boolean equals(Object obj) {
-        if (this == obj) {
-            return true;
+    public double asDouble() {
+        Object v = value();
+        return v instanceof Number ? ((Number) v).doubleValue()
+                : super.asDouble();
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        Object v = value();
+        if (v instanceof BigInteger) {
+            return (BigInteger) v;
+        } else if (v instanceof Long) {
+            return BigInteger.valueOf((Long) v);
         }
-        if (obj == null || !(obj instanceof Literal)) {
-            return false;
+        return super.asBigInteger();
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        Object v = value();
+        if (v instanceof BigDecimal) {
+            return (BigDecimal) v;
+        } else if (v instanceof Long) {
+            return BigDecimal.valueOf((Long) v);
+        } else if (v instanceof BigInteger) {
+            return new BigDecimal((BigInteger) v);
         }
-        Literal literal = (Literal) obj;
-        return getDatatype().equals(literal.getDatatype())
-                && getLexicalForm().equals(literal.getLexicalForm())
-                && getLanguageTag().equals(literal.getLanguageTag());
+        // Floating point values keep the scale of their lexical form
+        return super.asBigDecimal();
+    }
+
+    @Override
+    public boolean asBoolean() {
+        Object v = value();
+        return v instanceof Boolean ? (Boolean) v : super.asBoolean();
+    }
+
+    @Override
+    public Temporal asTemporal() {
+        Object v = value();
+        return v instanceof Temporal ? (Temporal) v
+                : super.asTemporal();
     }
 
 }
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * An <code>xsd:integer</code> literal holding a <code>long</code>.
+ */
+final class LongLiteral extends NativeLiteral {
+
+    private final long value;
+
+    LongLiteral(RDFContext context, long value) {
+        super(context, Types.XSD_INTEGER);
+        this.value = value;
+    }
+
+    @Override
+    String format() {
+        return Long.toString(value);
+    }
+
+    @Override
+    public int asInteger() {
+        if (value == (int) value) {
+            return (int) value;
+        }
+        return super.asInteger();
+    }
+
+    @Override
+    public long asLong() {
+        return value;
+    }
+
+    @Override
+    public BigInteger asBigInteger() {
+        return BigInteger.valueOf(value);
+    }
+
+    @Override
+    public BigDecimal asBigDecimal() {
+        return BigDecimal.valueOf(value);
+    }
+
+    @Override
+    public Object asDynamic() {
+        return asBigInteger();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof LongLiteral) {
+            return value == ((LongLiteral) obj).value;
+        }
+        return super.equals(obj);
+    }
+
+}
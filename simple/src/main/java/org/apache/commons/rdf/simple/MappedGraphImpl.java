@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A read-only implementation of Graph over a memory-mapped graph file.
+ * <p>
+ * The file is used as it is: the term dictionary and the three sorted
+ * triple orders are read in place, and terms are decoded without being
+ * validated again, as {@link Triple}s are handed out by
+ * {@link #getTriples()}. See {@link GraphFiles} for the file format.
+ * <p>
+ * Methods that would modify the graph throw
+ * {@link UnsupportedOperationException}. {@link #close()} unmaps the file;
+ * afterwards the graph, and any stream obtained from it, throw
+ * {@link IllegalStateException}. Closing the graph while another thread
+ * reads it is not safe.
+ * <p>
+ * All Stream operations are performed using unordered directives, and are
+ * sequential or parallel as set by the {@link StreamPolicy} of the factory
+ * for the number of matching triples.
+ */
+final class MappedGraphImpl extends AbstractGraph {
+
+    private static final int ANY = -1;
+    private static final int EMPTY = 0;
+
+    /** Column of the subject, predicate and object in each order */
+    private static final int[] SPO = {0, 1, 2};
+    private static final int[] POS = {2, 0, 1};
+    private static final int[] OSP = {1, 2, 0};
+
+    private final int tripleCount;
+    private final int mask;
+    /** The mapped sections of the file and views of them, all dropped on close */
+    private ByteBuffer[] sections;
+    private IntBuffer offsets;
+    private IntBuffer slots;
+    private IntBuffer spo;
+    private IntBuffer pos;
+    private IntBuffer osp;
+    private ByteBuffer data;
+    private volatile boolean closed;
+
+    /**
+     * @param factory  The factory to create triples and terms with
+     * @param header   The header of the graph file, validated by
+     *                 {@link GraphFiles}
+     * @param sections The sections of the graph file, mapped in the order of
+     *                 the header
+     */
+    MappedGraphImpl(RDFContext factory, ByteBuffer header, ByteBuffer[] sections) {
+        super(factory);
+        this.sections = sections;
+        tripleCount = header.getInt(GraphFiles.TRIPLES);
+        mask = header.getInt(GraphFiles.SLOTS) - 1;
+        offsets = sections[0].asIntBuffer();
+        slots = sections[1].asIntBuffer();
+        data = sections[2];
+        spo = sections[3].asIntBuffer();
+        pos = sections[4].asIntBuffer();
+        osp = sections[5].asIntBuffer();
+    }
+
+    @Override
+    public void add(Triple triple) {
+        throw new UnsupportedOperationException("Graph file is read-only");
+    }
+
+    @Override
+    public void add(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        throw new UnsupportedOperationException("Graph file is read-only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Graph file is read-only");
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        // Mark as closed before unmapping, as reading unmapped memory
+        // crashes the JVM
+        closed = true;
+        ByteBuffer[] mapped = sections;
+        sections = null;
+        offsets = slots = spo = pos = osp = null;
+        data = null;
+        GraphFiles.free(mapped);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Graph file is closed");
+        }
+    }
+
+    @Override
+    public boolean contains(BlankNodeOrIRI subject, IRI predicate,
+                            RDFTerm object) {
+        checkOpen();
+        return getTriples(subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+        Objects.requireNonNull(triple);
+        checkOpen();
+        int s = lookup(triple.getSubject());
+        int p = lookup(triple.getPredicate());
+        int o = lookup(triple.getObject());
+        return s != ANY && p != ANY && o != ANY
+                && bound(spo, s, p, o, false) < bound(spo, s, p, o, true);
+    }
+
+    @Override
+    public Stream<Triple> getTriples() {
+        checkOpen();
+        return rows(spo, SPO, 0, tripleCount);
+    }
+
+    @Override
+    public Stream<Triple> getTriples(final BlankNodeOrIRI subject,
+                                     final IRI predicate, final RDFTerm object) {
+        checkOpen();
+        int s = subject == null ? ANY : lookup(subject);
+        int p = predicate == null ? ANY : lookup(predicate);
+        int o = object == null ? ANY : lookup(object);
+        if ((subject != null && s == ANY) || (predicate != null && p == ANY)
+                || (object != null && o == ANY)) {
+            // A term that is not in the file can't match anything
+            return Stream.empty();
+        }
+        // Pick the order that has the bound terms as a prefix
+        if (s != ANY && (p != ANY || o == ANY)) {
+            return range(spo, SPO, s, p, o);
+        } else if (s != ANY) {
+            return range(osp, OSP, o, s, ANY);
+        } else if (p != ANY) {
+            return range(pos, POS, p, o, ANY);
+        } else if (o != ANY) {
+            return range(osp, OSP, o, ANY, ANY);
+        }
+        return getTriples();
+    }
+
+    @Override
+    public long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        checkOpen();
+        int s = subject == null ? ANY : lookup(subject);
+        int p = predicate == null ? ANY : lookup(predicate);
+        int o = object == null ? ANY : lookup(object);
+        if ((subject != null && s == ANY) || (predicate != null && p == ANY)
+                || (object != null && o == ANY)) {
+            return 0;
+        }
+        // The matches of a prefix are a contiguous run of rows
+        if (s != ANY && (p != ANY || o == ANY)) {
+            return span(spo, s, p, o);
+        } else if (s != ANY) {
+            return span(osp, o, s, ANY);
+        } else if (p != ANY) {
+            return span(pos, p, o, ANY);
+        } else if (o != ANY) {
+            return span(osp, o, ANY, ANY);
+        }
+        return tripleCount;
+    }
+
+    @Override
+    public long estimateCount(BlankNodeOrIRI subject, IRI predicate,
+                              RDFTerm object) {
+        return count(subject, predicate, object);
+    }
+
+    @Override
+    public void remove(Triple triple) {
+        throw new UnsupportedOperationException("Graph file is read-only");
+    }
+
+    @Override
+    public void remove(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        throw new UnsupportedOperationException("Graph file is read-only");
+    }
+
+    @Override
+    public long size() {
+        checkOpen();
+        return tripleCount;
+    }
+
+    /**
+     * Find the identifier of a term by hashing its encoding.
+     *
+     * @return The identifier, or {@link #ANY} if the term is not in the file
+     */
+    private int lookup(RDFTerm term) {
+        RDFTerm local = internallyMap(term);
+        int length = TermCodec.encodedLength(local);
+        ByteBuffer encoded = ByteBuffer.allocate(length);
+        TermCodec.encode(local, encoded);
+        int i = TermCodec.hash(encoded, 0, length) & mask;
+        for (int v; (v = slots.get(i)) != EMPTY; i = (i + 1) & mask) {
+            if (equalsEncoded(v - 1, encoded)) {
+                return v - 1;
+            }
+        }
+        return ANY;
+    }
+
+    private boolean equalsEncoded(int id, ByteBuffer encoded) {
+        int start = offsets.get(id);
+        int length = offsets.get(id + 1) - start;
+        if (length != encoded.capacity()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != encoded.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RDFTerm term(int id) {
+        int start = offsets.get(id);
+        return TermCodec.decode(data, start,
+                offsets.get(id + 1) - start, factory);
+    }
+
+    private Stream<Triple> range(IntBuffer index, int[] columns, int a, int b,
+                                 int c) {
+        return rows(index, columns, bound(index, a, b, c, false),
+                bound(index, a, b, c, true));
+    }
+
+    private int span(IntBuffer index, int a, int b, int c) {
+        return bound(index, a, b, c, true) - bound(index, a, b, c, false);
+    }
+
+    private Stream<Triple> rows(IntBuffer index, int[] columns, int from,
+                                int to) {
+        return streamPolicy.apply(StreamSupport.stream(new RowSpliterator(
+                row -> {
+                    // The stream may outlive the mapping
+                    checkOpen();
+                    return factory.createTriple(
+                            (BlankNodeOrIRI) term(index.get(row * 3 + columns[0])),
+                            (IRI) term(index.get(row * 3 + columns[1])),
+                            term(index.get(row * 3 + columns[2])));
+                },
+                from, to, Spliterator.IMMUTABLE), false), to - from)
+                .unordered();
+    }
+
+    /**
+     * Binary search a sorted order for the first row that is not before the
+     * given prefix, or with <code>upper</code>, that is after it.
+     */
+    private int bound(IntBuffer index, int a, int b, int c, boolean upper) {
+        int low = 0;
+        int high = tripleCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(index, mid, a, b, c);
+            if (cmp < 0 || (upper && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compare a row with a prefix, where a trailing {@link #ANY} matches
+     * every identifier.
+     */
+    private static int compare(IntBuffer index, int row, int a, int b, int c) {
+        int base = row * 3;
+        int cmp = Integer.compare(index.get(base), a);
+        if (cmp != 0 || b == ANY) {
+            return cmp;
+        }
+        cmp = Integer.compare(index.get(base + 1), b);
+        if (cmp != 0 || c == ANY) {
+            return cmp;
+        }
+        return Integer.compare(index.get(base + 2), c);
+    }
+
+}
@@ -0,0 +1,823 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A streaming parser for
+ * <a href="http://www.w3.org/TR/n-triples/">N-Triples</a>.
+ * <p>
+ * The document is read through one fixed-size buffer and decoded from UTF-8
+ * straight into the terms, so memory use does not depend on the size of the
+ * document, and no String is built for a whole line. Terms and triples are
+ * created with the {@link RDFContext} given to the constructor.
+ * <p>
+ * Each document gets its own blank node label map: a label names the same
+ * {@link BlankNode} throughout the document, made by
+ * {@link RDFContext#createBlankNode()}, and names a different one in the next
+ * document that is parsed.
+ * <p>
+ * Syntax errors, and terms rejected by the {@link RDFContext}, are reported
+ * as an {@link IOException} giving the line number. Streams, which can't
+ * throw {@link IOException}, throw an {@link UncheckedIOException} instead.
+ * <p>
+ * A parser may be shared between threads, as all the state of a document is
+ * kept while parsing it.
+ */
+public final class NTriplesParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final RDFContext factory;
+
+    /**
+     * Create a parser for N-Triples documents.
+     *
+     * @param factory The factory to create triples and terms with
+     */
+    public NTriplesParser(RDFContext factory) {
+        this.factory = Objects.requireNonNull(factory);
+    }
+
+    /**
+     * Parse a document, adding its triples to a graph.
+     *
+     * @param in    The document, which is not closed
+     * @param graph The graph to add the triples to
+     * @throws IOException If the document can't be read or is not valid
+     */
+    public void parse(InputStream in, Graph graph) throws IOException {
+        parse(Channels.newChannel(in), graph::add);
+    }
+
+    /**
+     * Parse a document, passing each triple to a consumer as it is read.
+     *
+     * @param in   The document, which is not closed
+     * @param sink The consumer of the triples
+     * @throws IOException If the document can't be read or is not valid
+     */
+    public void parse(InputStream in, Consumer<? super Triple> sink)
+            throws IOException {
+        parse(Channels.newChannel(in), sink);
+    }
+
+    /**
+     * Parse a document, adding its triples to a graph.
+     *
+     * @param channel The document, which is not closed
+     * @param graph   The graph to add the triples to
+     * @throws IOException If the document can't be read or is not valid
+     */
+    public void parse(ReadableByteChannel channel, Graph graph)
+            throws IOException {
+        parse(channel, graph::add);
+    }
+
+    /**
+     * Parse a document, passing each triple to a consumer as it is read.
+     *
+     * @param channel The document, which is not closed
+     * @param sink    The consumer of the triples
+     * @throws IOException If the document can't be read or is not valid
+     */
+    public void parse(ReadableByteChannel channel,
+                      Consumer<? super Triple> sink) throws IOException {
+        Document document = new Document(channel);
+        for (Triple triple; (triple = document.next()) != null; ) {
+            sink.accept(triple);
+        }
+    }
+
+    /**
+     * Parse a file, adding its triples to a graph.
+     *
+     * @param path  The file to read
+     * @param graph The graph to add the triples to
+     * @throws IOException If the file can't be read or is not valid
+     */
+    public void parse(Path path, Graph graph) throws IOException {
+        parse(path, graph::add);
+    }
+
+    /**
+     * Parse a file, passing each triple to a consumer as it is read.
+     *
+     * @param path The file to read
+     * @param sink The consumer of the triples
+     * @throws IOException If the file can't be read or is not valid
+     */
+    public void parse(Path path, Consumer<? super Triple> sink)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            parse(channel, sink);
+        }
+    }
+
+    /**
+     * Parse a document lazily, as the returned stream is consumed.
+     *
+     * @param in The document, which is not closed
+     * @return A sequential stream of the triples of the document
+     */
+    public Stream<Triple> stream(InputStream in) {
+        return stream(Channels.newChannel(in));
+    }
+
+    /**
+     * Parse a document lazily, as the returned stream is consumed.
+     *
+     * @param channel The document, which is not closed
+     * @return A sequential stream of the triples of the document
+     */
+    public Stream<Triple> stream(ReadableByteChannel channel) {
+        Document document = new Document(channel);
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Triple>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Triple> action) {
+                Triple triple;
+                try {
+                    triple = document.next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (triple == null) {
+                    return false;
+                }
+                action.accept(triple);
+                return true;
+            }
+        }, false);
+    }
+
+    /**
+     * Parse a file lazily, as the returned stream is consumed. The file is
+     * closed when the stream is closed.
+     *
+     * @param path The file to read
+     * @return A sequential stream of the triples of the file
+     * @throws IOException If the file can't be opened
+     */
+    public Stream<Triple> stream(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return stream(channel).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Parse a file in parallel on the common {@link ForkJoinPool}, adding its
+     * triples to a graph.
+     *
+     * @param path  The file to read
+     * @param graph The graph to add the triples to
+     * @throws IOException If the file can't be read or is not valid
+     * @see #parallelParse(Path, Graph, ForkJoinPool)
+     */
+    public void parallelParse(Path path, Graph graph) throws IOException {
+        parallelParse(path, graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse a file in parallel, adding its triples to a graph.
+     * <p>
+     * The file is cut into chunks of about 8 MB at line
+     * ends, and each chunk is memory-mapped and parsed by a task on the given
+     * pool. Blank node labels are shared by all the chunks, so they are
+     * consistent for the whole file. The triples of each chunk are added to
+     * the graph by the calling thread, in the order of the file, while the
+     * following chunks are being parsed; at most two chunks per thread of
+     * the pool are held in memory at a time.
+     * <p>
+     * The triples are passed to the graph as they are created, so the
+     * {@link RDFContext} of this parser must be thread-safe, as
+     * {@link SimpleRDFTermFactory} is; the graph needs not be.
+     *
+     * @param path  The file to read
+     * @param graph The graph to add the triples to
+     * @param pool  The pool to parse the chunks on
+     * @throws IOException If the file can't be read or is not valid
+     */
+    public void parallelParse(Path path, Graph graph, ForkJoinPool pool)
+            throws IOException {
+        parallelParse(path, graph, pool, CHUNK_SIZE);
+    }
+
+    void parallelParse(Path path, Graph graph, ForkJoinPool pool,
+                       int chunkSize) throws IOException {
+        Map<String, BlankNode> blankNodes = new ConcurrentHashMap<>();
+        Deque<ForkJoinTask<List<Triple>>> chunks = new ArrayDeque<>();
+        int maxChunks = pool.getParallelism() * 2;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size || !chunks.isEmpty()) {
+                while (start < size && chunks.size() < maxChunks) {
+                    long from = start;
+                    long to = lineEnd(channel, from + chunkSize);
+                    chunks.add(pool.submit(() ->
+                            parseChunk(channel, from, to, blankNodes)));
+                    start = to;
+                }
+                List<Triple> triples = join(chunks.removeFirst());
+                graph.addAll(triples, triples.size(), false);
+            }
+        } finally {
+            for (ForkJoinTask<List<Triple>> chunk : chunks) {
+                chunk.cancel(false);
+            }
+        }
+    }
+
+    private List<Triple> parseChunk(FileChannel channel, long from, long to,
+                                    Map<String, BlankNode> blankNodes)
+            throws IOException {
+        MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY,
+                from, to - from);
+        try {
+            Document document = new Document(new ChunkChannel(chunk),
+                    blankNodes, () -> countLines(channel, from));
+            List<Triple> triples = new ArrayList<>();
+            for (Triple triple; (triple = document.next()) != null; ) {
+                triples.add(triple);
+            }
+            return triples;
+        } finally {
+            DirectBuffers.free(chunk);
+        }
+    }
+
+    private static List<Triple> join(ForkJoinTask<List<Triple>> chunk)
+            throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // ForkJoinPool wraps the checked exceptions of a Callable in a
+            // RuntimeException, and when rethrowing in another thread may wrap
+            // that again in a copy of itself. Exceptions nested any other way
+            // are left alone.
+            for (Throwable t = cause; t instanceof RuntimeException;
+                 t = t.getCause()) {
+                if (t.getCause() instanceof IOException) {
+                    throw (IOException) t.getCause();
+                }
+                if (t.getCause() == null
+                        || t.getCause().getClass() != t.getClass()) {
+                    break;
+                }
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Find the end of the line that the byte before the given position is
+     * on, so that a chunk ending there ends with a complete line.
+     *
+     * @return The position after the first line feed at or after
+     * <code>position - 1</code>, or the size of the file
+     */
+    private static long lineEnd(FileChannel channel, long position)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long offset = position - 1;
+        while (offset < channel.size()) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return channel.size();
+    }
+
+    /**
+     * Count the lines before a position of a file, only needed to report an
+     * error in a chunk.
+     */
+    private static long countLines(FileChannel channel, long position) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long lines = 0;
+        try {
+            for (long offset = 0; offset < position; ) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), position - offset));
+                int read = channel.read(buffer, offset);
+                if (read < 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lines++;
+                    }
+                }
+                offset += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+
+    /**
+     * A channel reading from a chunk of a memory-mapped file.
+     */
+    private static final class ChunkChannel implements ReadableByteChannel {
+
+        private final ByteBuffer chunk;
+
+        ChunkChannel(ByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!chunk.hasRemaining()) {
+                return -1;
+            }
+            int length = Math.min(dst.remaining(), chunk.remaining());
+            ByteBuffer slice = chunk.duplicate();
+            slice.limit(slice.position() + length);
+            dst.put(slice);
+            chunk.position(chunk.position() + length);
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    /**
+     * The state of parsing one document, or one chunk of it.
+     */
+    private final class Document {
+
+        private final ReadableByteChannel channel;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        /** Next byte to parse, and end of the bytes read into the buffer */
+        private int position;
+        private int limit;
+        private boolean eof;
+        private long line = 1;
+        private final Map<String, BlankNode> blankNodes;
+        private final LongSupplier linesBefore;
+        private final StringBuilder text = new StringBuilder();
+
+        Document(ReadableByteChannel channel) {
+            this(channel, new HashMap<>(), () -> 0);
+        }
+
+        /**
+         * @param channel     The document, or a chunk of it
+         * @param blankNodes  The blank node label map of the document
+         * @param linesBefore Counts the lines of the document before the
+         *                    chunk, for error messages
+         */
+        Document(ReadableByteChannel channel, Map<String, BlankNode> blankNodes,
+                 LongSupplier linesBefore) {
+            this.channel = Objects.requireNonNull(channel);
+            this.blankNodes = blankNodes;
+            this.linesBefore = linesBefore;
+        }
+
+        /**
+         * Parse the next triple.
+         *
+         * @return The triple, or null at the end of the document
+         */
+        Triple next() throws IOException {
+            while (true) {
+                skipWhitespace();
+                int c = peek(0);
+                if (c == -1) {
+                    return null;
+                } else if (c == '#') {
+                    skipComment();
+                } else if (c == '\n' || c == '\r') {
+                    endOfLine();
+                } else {
+                    return triple();
+                }
+            }
+        }
+
+        private Triple triple() throws IOException {
+            BlankNodeOrIRI subject;
+            int c = peek(0);
+            if (c == '<') {
+                subject = iri();
+            } else if (c == '_') {
+                subject = blankNode();
+            } else {
+                throw error("Expected IRI or blank node as subject");
+            }
+            skipWhitespace();
+            if (peek(0) != '<') {
+                throw error("Expected IRI as predicate");
+            }
+            IRI predicate = iri();
+            skipWhitespace();
+            RDFTerm object;
+            c = peek(0);
+            if (c == '<') {
+                object = iri();
+            } else if (c == '_') {
+                object = blankNode();
+            } else if (c == '"') {
+                object = literal();
+            } else {
+                throw error("Expected IRI, blank node or literal as object");
+            }
+            skipWhitespace();
+            expect('.');
+            skipWhitespace();
+            c = peek(0);
+            if (c == '#') {
+                skipComment();
+            } else if (c != -1 && c != '\n' && c != '\r') {
+                throw error("Expected end of line after triple");
+            }
+            try {
+                return factory.createTriple(subject, predicate, object);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage(), e);
+            }
+        }
+
+        private IRI iri() throws IOException {
+            expect('<');
+            text.setLength(0);
+            for (int c; (c = read()) != '>'; ) {
+                if (c == '\\') {
+                    c = read();
+                    if (c == 'u') {
+                        unicode(4);
+                    } else if (c == 'U') {
+                        unicode(8);
+                    } else {
+                        throw error("Invalid escape in IRI");
+                    }
+                } else if (c >= 0x80) {
+                    utf8(c);
+                } else if (c <= ' ' || c == '<' || c == '"' || c == '{'
+                        || c == '}' || c == '|' || c == '^' || c == '`') {
+                    throw error(c == -1 || c == '\n' || c == '\r'
+                            ? "Unterminated IRI" : "Invalid character in IRI");
+                } else {
+                    text.append((char) c);
+                }
+            }
+            try {
+                return factory.createIRI(text.toString());
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage(), e);
+            }
+        }
+
+        private BlankNode blankNode() throws IOException {
+            expect('_');
+            expect(':');
+            text.setLength(0);
+            int c = read();
+            if (c == '-' || c == '.' || !isLabelChar(c)) {
+                throw error("Invalid blank node label");
+            }
+            labelChar(c);
+            while (true) {
+                c = peek(0);
+                if (c == '.') {
+                    // A label can't end with '.', which may end the triple
+                    int dots = 1;
+                    while (peek(dots) == '.') {
+                        dots++;
+                    }
+                    if (!isLabelChar(peek(dots))) {
+                        break;
+                    }
+                    position += dots;
+                    for (int i = 0; i < dots; i++) {
+                        text.append('.');
+                    }
+                } else if (isLabelChar(c)) {
+                    position++;
+                    labelChar(c);
+                } else {
+                    break;
+                }
+            }
+            return blankNodes.computeIfAbsent(text.toString(),
+                    label -> factory.createBlankNode());
+        }
+
+        private RDFTerm literal() throws IOException {
+            expect('"');
+            text.setLength(0);
+            for (int c; (c = read()) != '"'; ) {
+                if (c == '\\') {
+                    escape();
+                } else if (c >= 0x80) {
+                    utf8(c);
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    throw error("Unterminated literal");
+                } else {
+                    text.append((char) c);
+                }
+            }
+            String lexicalForm = text.toString();
+            try {
+                int c = peek(0);
+                if (c == '@') {
+                    position++;
+                    return factory.createLiteral(lexicalForm, languageTag());
+                } else if (c == '^') {
+                    position++;
+                    expect('^');
+                    if (peek(0) != '<') {
+                        throw error("Expected datatype IRI");
+                    }
+                    return factory.createLiteral(lexicalForm, iri());
+                }
+                return factory.createLiteral(lexicalForm);
+            } catch (IllegalArgumentException e) {
+                throw error(e.getMessage(), e);
+            }
+        }
+
+        private String languageTag() throws IOException {
+            text.setLength(0);
+            boolean subtag = false;
+            while (true) {
+                int c = peek(0);
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                        || (subtag && c >= '0' && c <= '9')) {
+                    text.append((char) c);
+                } else if (c == '-' && text.length() > 0
+                        && text.charAt(text.length() - 1) != '-') {
+                    text.append('-');
+                    subtag = true;
+                } else {
+                    break;
+                }
+                position++;
+            }
+            if (text.length() == 0 || text.charAt(text.length() - 1) == '-') {
+                throw error("Invalid language tag");
+            }
+            return text.toString();
+        }
+
+        private void escape() throws IOException {
+            int c = read();
+            switch (c) {
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case '"':
+                case '\'':
+                case '\\':
+                    text.append((char) c);
+                    break;
+                case 'u':
+                    unicode(4);
+                    break;
+                case 'U':
+                    unicode(8);
+                    break;
+                default:
+                    throw error("Invalid escape in literal");
+            }
+        }
+
+        private void unicode(int digits) throws IOException {
+            int codePoint = 0;
+            for (int i = 0; i < digits; i++) {
+                int digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw error("Invalid hexadecimal digit in escape");
+                }
+                codePoint = codePoint << 4 | digit;
+            }
+            appendCodePoint(codePoint);
+        }
+
+        /**
+         * Decode the rest of a UTF-8 sequence starting with the given byte.
+         */
+        private void utf8(int first) throws IOException {
+            int more;
+            int codePoint;
+            if ((first & 0xE0) == 0xC0) {
+                more = 1;
+                codePoint = first & 0x1F;
+            } else if ((first & 0xF0) == 0xE0) {
+                more = 2;
+                codePoint = first & 0x0F;
+            } else if ((first & 0xF8) == 0xF0) {
+                more = 3;
+                codePoint = first & 0x07;
+            } else {
+                throw error("Invalid UTF-8");
+            }
+            for (int i = 0; i < more; i++) {
+                int c = read();
+                if ((c & 0xC0) != 0x80) {
+                    throw error("Invalid UTF-8");
+                }
+                codePoint = codePoint << 6 | (c & 0x3F);
+            }
+            appendCodePoint(codePoint);
+        }
+
+        private void appendCodePoint(int codePoint) throws IOException {
+            if (codePoint > Character.MAX_CODE_POINT
+                    || (codePoint >= Character.MIN_SURROGATE
+                    && codePoint <= Character.MAX_SURROGATE)) {
+                throw error("Invalid code point " + Integer.toHexString(codePoint));
+            }
+            text.appendCodePoint(codePoint);
+        }
+
+        private void labelChar(int c) throws IOException {
+            if (c >= 0x80) {
+                utf8(c);
+            } else {
+                text.append((char) c);
+            }
+        }
+
+        private boolean isLabelChar(int c) {
+            return c >= 0x80 || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '_' || c == ':'
+                    || c == '-';
+        }
+
+        private void skipWhitespace() throws IOException {
+            for (int c; (c = peek(0)) == ' ' || c == '\t'; ) {
+                position++;
+            }
+        }
+
+        private void skipComment() throws IOException {
+            for (int c; (c = peek(0)) != -1 && c != '\n' && c != '\r'; ) {
+                position++;
+            }
+        }
+
+        private void endOfLine() throws IOException {
+            if (read() == '\r' && peek(0) == '\n') {
+                position++;
+            }
+            line++;
+        }
+
+        private void expect(char expected) throws IOException {
+            if (read() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private int read() throws IOException {
+            int c = peek(0);
+            if (c != -1) {
+                position++;
+            }
+            return c;
+        }
+
+        /**
+         * Look at a byte ahead of the position, reading more of the document
+         * if needed.
+         *
+         * @return The byte, or -1 at the end of the document
+         */
+        private int peek(int ahead) throws IOException {
+            if (position + ahead >= limit && !eof) {
+                fill(ahead + 1);
+            }
+            return position + ahead < limit ? bytes[position + ahead] & 0xFF : -1;
+        }
+
+        private void fill(int needed) throws IOException {
+            if (needed > bytes.length) {
+                throw error("Blank node label too long");
+            }
+            System.arraycopy(bytes, position, bytes, 0, limit - position);
+            limit -= position;
+            position = 0;
+            while (limit < needed && !eof) {
+                buffer.limit(bytes.length).position(limit);
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    eof = true;
+                } else {
+                    limit += read;
+                }
+            }
+        }
+
+        private IOException error(String message) {
+            return error(message, null);
+        }
+
+        private IOException error(String message, Throwable cause) {
+            return new IOException("Line " + (linesBefore.getAsLong() + line)
+                    + ": " + message, cause);
+        }
+
+    }
+
+}
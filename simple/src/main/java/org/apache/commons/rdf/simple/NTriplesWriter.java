@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A streaming writer of <a href="http://www.w3.org/TR/n-triples/">N-Triples</a>.
+ * <p>
+ * Triples are written term by term into one reusable buffer, escaping and
+ * encoding to UTF-8 in a single pass, and the buffer is written to the
+ * channel whenever it is full. Unlike {@link RDFTerm#ntriplesString()}, no
+ * Strings are created, so writing allocates nothing per triple. The output is
+ * the same as joining the {@link RDFTerm#ntriplesString()} of the terms of
+ * each triple, as {@link TripleImpl#toString()} does, one triple per line.
+ * <p>
+ * Output is only written when the buffer is full, or on {@link #flush()} and
+ * {@link #close()}. This class is not thread-safe.
+ */
+public final class NTriplesWriter implements Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Most bytes a single char, or pair of chars, is written as */
+    private static final int MAX_CHAR_BYTES = 4;
+
+    private final WritableByteChannel channel;
+    private final OutputStream out;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+
+    /**
+     * Create a writer to a channel.
+     *
+     * @param channel The channel to write to, which is closed by
+     *                {@link #close()}
+     */
+    public NTriplesWriter(WritableByteChannel channel) {
+        this(channel, null, BUFFER_SIZE);
+    }
+
+    /**
+     * Create a writer to an output stream.
+     *
+     * @param out The stream to write to, which is closed by {@link #close()}
+     */
+    public NTriplesWriter(OutputStream out) {
+        this(Channels.newChannel(out), out, BUFFER_SIZE);
+    }
+
+    NTriplesWriter(WritableByteChannel channel, OutputStream out,
+                   int bufferSize) {
+        this.channel = Objects.requireNonNull(channel);
+        this.out = out;
+        if (bufferSize < MAX_CHAR_BYTES) {
+            throw new IllegalArgumentException("Buffer too small: " + bufferSize);
+        }
+        bytes = new byte[bufferSize];
+        buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Write all the triples of a graph.
+     *
+     * @param graph The graph to write
+     * @throws IOException If the output can't be written
+     */
+    public void write(Graph graph) throws IOException {
+        Iterator<? extends Triple> triples = graph.getTriples().iterator();
+        while (triples.hasNext()) {
+            write(triples.next());
+        }
+    }
+
+    /**
+     * Write a triple as a line of N-Triples.
+     *
+     * @param triple The triple to write
+     * @throws IOException If the output can't be written
+     */
+    public void write(Triple triple) throws IOException {
+        write(triple.getSubject());
+        put(' ');
+        write(triple.getPredicate());
+        put(' ');
+        write(triple.getObject());
+        put(' ');
+        put('.');
+        put('\n');
+    }
+
+    private void write(RDFTerm term) throws IOException {
+        if (term instanceof IRI) {
+            put('<');
+            put(((IRI) term).getIRIString(), false);
+            put('>');
+        } else if (term instanceof BlankNodeImpl) {
+            // Like ntriplesString(), without creating it
+            put('_');
+            put(':');
+            put(((BlankNode) term).uniqueReference(), false);
+        } else if (term instanceof Literal) {
+            Literal literal = (Literal) term;
+            put('"');
+            put(literal.getLexicalForm(), true);
+            put('"');
+            if (literal.getLanguageTag().isPresent()) {
+                put('@');
+                put(literal.getLanguageTag().get(), false);
+            } else if (!literal.getDatatype().equals(Types.XSD_STRING)) {
+                put('^');
+                put('^');
+                write(literal.getDatatype());
+            }
+        } else {
+            // Other blank nodes know best how to label themselves
+            put(term.ntriplesString(), false);
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (position == bytes.length) {
+            drain();
+        }
+        bytes[position++] = (byte) c;
+    }
+
+    /**
+     * Encode a string as UTF-8, optionally escaping it as the lexical form
+     * of a literal. Unpaired surrogates are written as <code>'?'</code>.
+     */
+    private void put(CharSequence s, boolean escape) throws IOException {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            if (bytes.length - position < MAX_CHAR_BYTES) {
+                drain();
+            }
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (escape) {
+                    switch (c) {
+                        case '\\':
+                        case '"':
+                            bytes[position++] = '\\';
+                            break;
+                        case '\r':
+                            bytes[position++] = '\\';
+                            c = 'r';
+                            break;
+                        case '\n':
+                            bytes[position++] = '\\';
+                            c = 'n';
+                            break;
+                        default:
+                    }
+                }
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | (c >> 6));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    bytes[position++] = (byte) (0xF0 | (cp >> 18));
+                    bytes[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    bytes[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    bytes[position++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    bytes[position++] = '?';
+                }
+            } else {
+                bytes[position++] = (byte) (0xE0 | (c >> 12));
+                bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Write out the buffer, and make it empty.
+     */
+    private void drain() throws IOException {
+        buffer.clear();
+        buffer.limit(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        position = 0;
+    }
+
+    /**
+     * Write out any buffered triples, and flush the output stream if writing
+     * to one.
+     *
+     * @throws IOException If the output can't be written
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Write out any buffered triples, and close the channel.
+     *
+     * @throws IOException If the output can't be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
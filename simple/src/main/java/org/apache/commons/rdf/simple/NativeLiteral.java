@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.util.Optional;
+
+/**
+ * Common base for literals that keep a native Java value instead of a
+ * lexical form.
+ * <p>
+ * The lexical form is only formatted when first asked for, and then kept.
+ * Formatting is idempotent, so racing threads at worst format it twice.
+ * Hashing formats it without keeping it, as the fingerprint is kept instead.
+ */
+abstract class NativeLiteral extends AbstractLiteral {
+
+    private final IRI dataType;
+    private String lexicalForm;
+
+    /**
+     * @param context  The context of the literal
+     * @param dataType A canonical datatype from {@link Types}
+     */
+    NativeLiteral(RDFContext context, IRI dataType) {
+        super(context);
+        this.dataType = dataType;
+    }
+
+    /**
+     * Format the value as a lexical form.
+     *
+     * @return The lexical form of the value
+     */
+    abstract String format();
+
+    @Override
+    public final String getLexicalForm() {
+        String result = lexicalForm;
+        if (result == null) {
+            lexicalForm = result = format();
+        }
+        return result;
+    }
+
+    @Override
+    final String hashedLexicalForm() {
+        String result = lexicalForm;
+        return result != null ? result : format();
+    }
+
+    @Override
+    public IRI getDatatype() {
+        return dataType;
+    }
+
+    @Override
+    public Optional<String> getLanguageTag() {
+        return Optional.empty();
+    }
+
+}
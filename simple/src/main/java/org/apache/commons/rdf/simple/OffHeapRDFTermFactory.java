@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFContext;
+
+/**
+ * A {@link SimpleRDFTermFactory} whose graphs are kept in direct memory.
+ * <p>
+ * Each {@link Graph} created by this factory keeps its term dictionary and
+ * triple table off the Java heap, in direct buffers, so that heap use stays
+ * nearly flat however large the graph grows and the garbage collector has
+ * nothing to trace. Terms and triples are decoded as they are read. Calling
+ * {@link Graph#close()} releases the memory straight away; the graph must
+ * not be used afterwards.
+ * <p>
+ * A single graph can hold up to about 130 million triples, and 2 GB of
+ * encoded terms.
+ * <p>
+ * To have this factory found by {@link java.util.ServiceLoader}, list
+ * <code>org.apache.commons.rdf.simple.OffHeapRDFTermFactory</code> in the
+ * <code>META-INF/services/org.apache.commons.rdf.api.RDFContext</code> file
+ * of your application, in place of the {@link SimpleRDFTermFactory} entry.
+ *
+ * @see RDFContext
+ */
+public class OffHeapRDFTermFactory extends SimpleRDFTermFactory {
+
+    @Override
+    public Graph createGraph() {
+        return new DictionaryGraphImpl(this, new OffHeapTermDictionary(this),
+                new TripleTable(true));
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A {@link TermDictionary} kept in direct memory.
+ * <p>
+ * Terms are stored in their {@link TermCodec} encoding, each preceded by its
+ * length, in one growing buffer. The offset and hash of each term are kept in
+ * two <code>int</code> columns indexed by identifier, and identifiers are
+ * found through an open-addressing hash table over the encoded bytes.
+ * Apart from a small scratch buffer per thread, the dictionary keeps no
+ * objects on the heap; terms are decoded afresh by {@link #term(int)}.
+ * <p>
+ * This class is not thread-safe, but concurrent reads are safe while no
+ * writer is active.
+ */
+final class OffHeapTermDictionary implements TermDictionary {
+
+    private static final int MIN_TERMS = 64;
+    /** Slots hold <code>id + 1</code>, so that 0 marks an empty slot */
+    private static final int EMPTY = 0;
+
+    private final RDFContext factory;
+
+    private ByteBuffer data;
+    private int dataSize;
+    private ByteBuffer offsetMemory;
+    private IntBuffer offsets;
+    private ByteBuffer hashMemory;
+    private IntBuffer hashes;
+    private ByteBuffer slotMemory;
+    private IntBuffer slots;
+    private int mask;
+    private int size;
+
+    /**
+     * Heap buffer a term is encoded in before it is looked up, one per thread
+     * so that concurrent reads do not overwrite each other's terms
+     */
+    private final ThreadLocal<ByteBuffer> scratch =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    OffHeapTermDictionary(RDFContext factory) {
+        this.factory = factory;
+        data = DirectBuffers.allocate(MIN_TERMS * 32);
+        offsetMemory = DirectBuffers.allocate(MIN_TERMS * 4);
+        offsets = offsetMemory.asIntBuffer();
+        hashMemory = DirectBuffers.allocate(MIN_TERMS * 4);
+        hashes = hashMemory.asIntBuffer();
+        slotMemory = DirectBuffers.allocate(MIN_TERMS * 2 * 4);
+        slots = slotMemory.asIntBuffer();
+        mask = MIN_TERMS * 2 - 1;
+    }
+
+    @Override
+    public int intern(RDFTerm term) {
+        ByteBuffer key = encode(term);
+        int length = key.limit();
+        int hash = TermCodec.hash(key, 0, length);
+        int slot = find(key, hash);
+        int v = slots.get(slot);
+        if (v != EMPTY) {
+            return v - 1;
+        }
+        int id = size;
+        ensureCapacity(id + 1, length);
+        data.putInt(dataSize, length);
+        ByteBuffer target = data.duplicate();
+        target.clear();
+        target.position(dataSize + 4);
+        target.put(key);
+        offsets.put(id, dataSize);
+        hashes.put(id, hash);
+        dataSize += 4 + length;
+        size++;
+        // the slot table may have been rehashed by ensureCapacity
+        slots.put(find(key, hash), id + 1);
+        return id;
+    }
+
+    @Override
+    public int lookup(RDFTerm term) {
+        ByteBuffer key = encode(term);
+        int v = slots.get(find(key, TermCodec.hash(key, 0, key.limit())));
+        return v == EMPTY ? NOT_FOUND : v - 1;
+    }
+
+    @Override
+    public RDFTerm term(int id) {
+        int offset = offsets.get(id);
+        return TermCodec.decode(data, offset + 4, data.getInt(offset), factory);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void close() {
+        DirectBuffers.free(data);
+        DirectBuffers.free(offsetMemory);
+        DirectBuffers.free(hashMemory);
+        DirectBuffers.free(slotMemory);
+        data = offsetMemory = hashMemory = slotMemory = null;
+        scratch.remove();
+        offsets = hashes = slots = null;
+    }
+
+    /**
+     * Encode a term into the {@link #scratch} buffer of this thread, growing
+     * it if needed.
+     *
+     * @return The buffer, from position 0 to the end of the encoding
+     */
+    private ByteBuffer encode(RDFTerm term) {
+        int length = TermCodec.encodedLength(term);
+        ByteBuffer key = scratch.get();
+        if (length > key.capacity()) {
+            key = ByteBuffer.allocate(Math.max(length, key.capacity() * 2));
+            scratch.set(key);
+        }
+        key.clear();
+        TermCodec.encode(term, key);
+        key.flip();
+        return key;
+    }
+
+    /**
+     * Find the slot of an encoded term, or the empty slot where it would be
+     * inserted.
+     */
+    private int find(ByteBuffer key, int hash) {
+        int i = hash & mask;
+        for (int v; (v = slots.get(i)) != EMPTY; i = (i + 1) & mask) {
+            int id = v - 1;
+            if (hashes.get(id) == hash && equalsKey(offsets.get(id), key)) {
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private boolean equalsKey(int offset, ByteBuffer key) {
+        int length = key.limit();
+        if (data.getInt(offset) != length) {
+            return false;
+        }
+        int start = offset + 4;
+        for (int i = 0; i < length; i++) {
+            if (data.get(start + i) != key.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int terms, int length) {
+        if (dataSize + 4L + length > data.capacity()) {
+            long needed = dataSize + 4L + length;
+            ByteBuffer grown = DirectBuffers.allocate(Math.min(Integer.MAX_VALUE,
+                    Math.max(needed, data.capacity() * 2L)));
+            ByteBuffer used = data.duplicate();
+            used.clear();
+            used.limit(dataSize);
+            grown.put(used);
+            DirectBuffers.free(data);
+            data = grown;
+        }
+        if (terms > offsets.capacity()) {
+            int capacity = Math.max(terms, offsets.capacity() * 2);
+            ByteBuffer newOffsets = copyInts(offsets, capacity);
+            DirectBuffers.free(offsetMemory);
+            offsetMemory = newOffsets;
+            offsets = newOffsets.asIntBuffer();
+            ByteBuffer newHashes = copyInts(hashes, capacity);
+            DirectBuffers.free(hashMemory);
+            hashMemory = newHashes;
+            hashes = newHashes.asIntBuffer();
+        }
+        if (terms * 2L > slots.capacity()) {
+            int capacity = slots.capacity() * 2;
+            DirectBuffers.free(slotMemory);
+            slotMemory = DirectBuffers.allocate(capacity * 4L);
+            slots = slotMemory.asIntBuffer();
+            mask = capacity - 1;
+            for (int id = 0; id < size; id++) {
+                int i = hashes.get(id) & mask;
+                while (slots.get(i) != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots.put(i, id + 1);
+            }
+        }
+    }
+
+    private ByteBuffer copyInts(IntBuffer from, int capacity) {
+        ByteBuffer memory = DirectBuffers.allocate(capacity * 4L);
+        IntBuffer used = from.duplicate();
+        used.clear();
+        used.limit(size);
+        memory.asIntBuffer().put(used);
+        return memory;
+    }
+
+}
@@ -0,0 +1,433 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Triple;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable set of {@link Triple}s, as a hash array mapped trie.
+ * <p>
+ * Adding or removing a triple returns a new set that shares all but the
+ * path to the changed entry with the old one, so each change copies a
+ * handful of small arrays, and every version stays valid, unchanged, for as
+ * long as it is referenced.
+ * <p>
+ * Each level of the trie consumes 5 bits of the hash of a triple, and holds
+ * up to 32 entries, each a triple or a node of the next level. Triples whose
+ * hashes are equal in all 32 bits share a collision node. Nodes are kept
+ * compact: a node left with a single triple is replaced by that triple.
+ * <p>
+ * Each node knows the number of triples below it, so that {@link #stream()}
+ * can split the trie into parts of known, even size.
+ */
+final class PersistentTripleSet {
+
+    static final PersistentTripleSet EMPTY = new PersistentTripleSet(
+            new Node(0, new Object[0]), 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final long size;
+
+    private PersistentTripleSet(Node root, long size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean contains(Triple triple) {
+        int hash = hash(triple);
+        Node node = root;
+        for (int shift = 0; shift < 32; shift += BITS) {
+            int bit = bit(hash, shift);
+            if ((node.bitmap & bit) == 0) {
+                return false;
+            }
+            Object entry = node.entries[node.index(bit)];
+            if (!(entry instanceof Node)) {
+                return entry.equals(triple);
+            }
+            node = (Node) entry;
+        }
+        return node.collisionIndex(triple) >= 0;
+    }
+
+    /**
+     * @param triple The triple to add
+     * @return A set with the triple, which is this set if it already had it
+     */
+    PersistentTripleSet plus(Triple triple) {
+        Node newRoot = plus(root, triple, hash(triple), 0);
+        return newRoot == root ? this : new PersistentTripleSet(newRoot, size + 1);
+    }
+
+    /**
+     * @param triple The triple to remove
+     * @return A set without the triple, which is this set if it didn't have it
+     */
+    PersistentTripleSet minus(Triple triple) {
+        // The root is never replaced by a triple, see minus(Node...)
+        Node newRoot = (Node) minus(root, triple, hash(triple), 0);
+        return newRoot == root ? this : new PersistentTripleSet(newRoot, size - 1);
+    }
+
+    /**
+     * @return A sequential stream over the triples of this version
+     */
+    Stream<Triple> stream() {
+        return StreamSupport.stream(new TrieSpliterator(root, 0,
+                root.entries.length, size), false);
+    }
+
+    Iterator<Triple> iterator() {
+        return new TrieIterator(root, 0, root.entries.length);
+    }
+
+    private static Node plus(Node node, Triple triple, int hash, int shift) {
+        if (shift >= 32) {
+            if (node.collisionIndex(triple) >= 0) {
+                return node;
+            }
+            Object[] entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+            entries[node.entries.length] = triple;
+            return new Node(0, entries);
+        }
+        int bit = bit(hash, shift);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            Object[] entries = new Object[node.entries.length + 1];
+            System.arraycopy(node.entries, 0, entries, 0, index);
+            entries[index] = triple;
+            System.arraycopy(node.entries, index, entries, index + 1,
+                    node.entries.length - index);
+            return new Node(node.bitmap | bit, entries);
+        }
+        Object entry = node.entries[index];
+        Object replacement;
+        if (entry instanceof Node) {
+            replacement = plus((Node) entry, triple, hash, shift + BITS);
+        } else if (entry.equals(triple)) {
+            return node;
+        } else {
+            Triple existing = (Triple) entry;
+            replacement = pair(existing, hash(existing), triple, hash,
+                    shift + BITS);
+        }
+        if (replacement == entry) {
+            return node;
+        }
+        return node.with(index, replacement);
+    }
+
+    /**
+     * Create the node holding two triples whose hashes agree below the given
+     * shift.
+     */
+    private static Node pair(Triple a, int hashA, Triple b, int hashB,
+                             int shift) {
+        if (shift >= 32) {
+            return new Node(0, new Object[]{a, b});
+        }
+        int bitA = bit(hashA, shift);
+        int bitB = bit(hashB, shift);
+        if (bitA == bitB) {
+            return new Node(bitA, new Object[]{
+                    pair(a, hashA, b, hashB, shift + BITS)});
+        }
+        // Entries are in the order of their bits
+        return new Node(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0
+                ? new Object[]{a, b} : new Object[]{b, a});
+    }
+
+    /**
+     * @return The node without the triple, the node itself if it didn't
+     * have it, or the single triple left in the node
+     */
+    private static Object minus(Node node, Triple triple, int hash, int shift) {
+        if (shift >= 32) {
+            int index = node.collisionIndex(triple);
+            if (index < 0) {
+                return node;
+            }
+            if (node.entries.length == 2) {
+                return node.entries[1 - index];
+            }
+            return new Node(0, without(node.entries, index));
+        }
+        int bit = bit(hash, shift);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = node.index(bit);
+        Object entry = node.entries[index];
+        if (entry instanceof Node) {
+            Object replacement = minus((Node) entry, triple, hash, shift + BITS);
+            if (replacement == entry) {
+                return node;
+            }
+            if (!(replacement instanceof Node) && node.entries.length == 1
+                    && shift > 0) {
+                // Pull the last triple up, to keep the trie compact
+                return replacement;
+            }
+            return node.with(index, replacement);
+        }
+        if (!entry.equals(triple)) {
+            return node;
+        }
+        if (node.entries.length == 2 && shift > 0
+                && !(node.entries[1 - index] instanceof Node)) {
+            return node.entries[1 - index];
+        }
+        return new Node(node.bitmap & ~bit, without(node.entries, index));
+    }
+
+    private static Object[] without(Object[] entries, int index) {
+        Object[] result = new Object[entries.length - 1];
+        System.arraycopy(entries, 0, result, 0, index);
+        System.arraycopy(entries, index + 1, result, index,
+                entries.length - index - 1);
+        return result;
+    }
+
+    private static int hash(Triple triple) {
+        int h = triple.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * A level of the trie, or a collision node of triples with equal hashes,
+     * whose bitmap is 0.
+     */
+    private static final class Node {
+
+        final int bitmap;
+        final Object[] entries;
+        /** Number of triples in this node and below */
+        final long size;
+
+        Node(int bitmap, Object[] entries) {
+            this.bitmap = bitmap;
+            this.entries = entries;
+            long count = 0;
+            for (Object entry : entries) {
+                count += sizeOf(entry);
+            }
+            this.size = count;
+        }
+
+        static long sizeOf(Object entry) {
+            return entry instanceof Node ? ((Node) entry).size : 1;
+        }
+
+        int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        int collisionIndex(Triple triple) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].equals(triple)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Node with(int index, Object entry) {
+            Object[] copy = entries.clone();
+            copy[index] = entry;
+            return new Node(bitmap, copy);
+        }
+
+    }
+
+    /**
+     * Depth-first iterator over the triples of a range of entries of a node.
+     */
+    private static final class TrieIterator implements Iterator<Triple> {
+
+        private final Deque<Node> nodes = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        /** End of the range of entries of the first node */
+        private final int end;
+        private Triple next;
+
+        TrieIterator(Node node, int from, int to) {
+            nodes.push(node);
+            positions.push(from);
+            end = to;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (!nodes.isEmpty()) {
+                Node node = nodes.peek();
+                int position = positions.pop();
+                int limit = nodes.size() == 1 ? end : node.entries.length;
+                if (position == limit) {
+                    nodes.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+                Object entry = node.entries[position];
+                if (entry instanceof Node) {
+                    nodes.push((Node) entry);
+                    positions.push(0);
+                } else {
+                    next = (Triple) entry;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Triple next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Triple result = next;
+            advance();
+            return result;
+        }
+
+    }
+
+    /**
+     * Spliterator over a range of entries of a node, which splits the range
+     * into two of about the same number of triples, descending into the
+     * node of a range of one entry.
+     */
+    private static final class TrieSpliterator implements Spliterator<Triple> {
+
+        private Node node;
+        private int from;
+        private int to;
+        private long size;
+        /** Set once traversal has started */
+        private TrieIterator iterator;
+
+        TrieSpliterator(Node node, int from, int to, long size) {
+            this.node = node;
+            this.from = from;
+            this.to = to;
+            this.size = size;
+        }
+
+        @Override
+        public Spliterator<Triple> trySplit() {
+            if (iterator != null) {
+                return null;
+            }
+            while (to - from == 1 && node.entries[from] instanceof Node) {
+                node = (Node) node.entries[from];
+                from = 0;
+                to = node.entries.length;
+            }
+            if (to - from < 2) {
+                return null;
+            }
+            // Take entries for the prefix until it holds about half
+            int mid = from;
+            long prefix = Node.sizeOf(node.entries[mid++]);
+            while (mid < to - 1
+                    && prefix + Node.sizeOf(node.entries[mid]) <= size / 2) {
+                prefix += Node.sizeOf(node.entries[mid++]);
+            }
+            TrieSpliterator split = new TrieSpliterator(node, from, mid, prefix);
+            from = mid;
+            size -= prefix;
+            return split;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Triple> action) {
+            if (iterator == null) {
+                iterator = new TrieIterator(node, from, to);
+            }
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            size--;
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Triple> action) {
+            if (iterator != null) {
+                iterator.forEachRemaining(action);
+            } else {
+                for (int i = from; i < to; i++) {
+                    visit(node.entries[i], action);
+                }
+                from = to;
+            }
+            size = 0;
+        }
+
+        private static void visit(Object entry,
+                                  Consumer<? super Triple> action) {
+            if (entry instanceof Node) {
+                for (Object child : ((Node) entry).entries) {
+                    visit(child, action);
+                }
+            } else {
+                action.accept((Triple) entry);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.DISTINCT | Spliterator.NONNULL
+                    | Spliterator.IMMUTABLE;
+        }
+
+    }
+
+}
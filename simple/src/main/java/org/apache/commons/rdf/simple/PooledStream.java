@@ -0,0 +1,297 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Stream} whose terminal operations run in a given
+ * {@link ForkJoinPool}.
+ * <p>
+ * A parallel stream runs in the pool of the thread that starts its terminal
+ * operation, or else in the common pool, so the terminal operations are
+ * started by a task in the pool. Intermediate operations return streams that
+ * run in the same pool, except for those returning primitive streams.
+ *
+ * @see StreamPolicy
+ */
+final class PooledStream<T> implements Stream<T> {
+
+    private final Stream<T> stream;
+    private final ForkJoinPool pool;
+
+    PooledStream(Stream<T> stream, ForkJoinPool pool) {
+        this.stream = stream;
+        this.pool = pool;
+    }
+
+    private <R> Stream<R> wrap(Stream<R> next) {
+        return new PooledStream<>(next, pool);
+    }
+
+    private <R> R run(Callable<R> operation) {
+        if (!stream.isParallel() || ForkJoinTask.getPool() == pool) {
+            try {
+                return operation.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                // Terminal operations throw no checked exceptions
+                throw new IllegalStateException(e);
+            }
+        }
+        return pool.invoke(ForkJoinTask.adapt(operation));
+    }
+
+    private void run(Runnable operation) {
+        run(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    @Override
+    public Stream<T> filter(Predicate<? super T> predicate) {
+        return wrap(stream.filter(predicate));
+    }
+
+    @Override
+    public <R> Stream<R> map(Function<? super T, ? extends R> mapper) {
+        return wrap(stream.map(mapper));
+    }
+
+    @Override
+    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+        return stream.mapToInt(mapper);
+    }
+
+    @Override
+    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+        return stream.mapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return stream.mapToDouble(mapper);
+    }
+
+    @Override
+    public <R> Stream<R> flatMap(
+            Function<? super T, ? extends Stream<? extends R>> mapper) {
+        return wrap(stream.flatMap(mapper));
+    }
+
+    @Override
+    public IntStream flatMapToInt(
+            Function<? super T, ? extends IntStream> mapper) {
+        return stream.flatMapToInt(mapper);
+    }
+
+    @Override
+    public LongStream flatMapToLong(
+            Function<? super T, ? extends LongStream> mapper) {
+        return stream.flatMapToLong(mapper);
+    }
+
+    @Override
+    public DoubleStream flatMapToDouble(
+            Function<? super T, ? extends DoubleStream> mapper) {
+        return stream.flatMapToDouble(mapper);
+    }
+
+    @Override
+    public Stream<T> distinct() {
+        return wrap(stream.distinct());
+    }
+
+    @Override
+    public Stream<T> sorted() {
+        return wrap(stream.sorted());
+    }
+
+    @Override
+    public Stream<T> sorted(Comparator<? super T> comparator) {
+        return wrap(stream.sorted(comparator));
+    }
+
+    @Override
+    public Stream<T> peek(Consumer<? super T> action) {
+        return wrap(stream.peek(action));
+    }
+
+    @Override
+    public Stream<T> limit(long maxSize) {
+        return wrap(stream.limit(maxSize));
+    }
+
+    @Override
+    public Stream<T> skip(long n) {
+        return wrap(stream.skip(n));
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        run(() -> stream.forEach(action));
+    }
+
+    @Override
+    public void forEachOrdered(Consumer<? super T> action) {
+        run(() -> stream.forEachOrdered(action));
+    }
+
+    @Override
+    public Object[] toArray() {
+        return run(() -> stream.toArray());
+    }
+
+    @Override
+    public <A> A[] toArray(IntFunction<A[]> generator) {
+        return run(() -> stream.toArray(generator));
+    }
+
+    @Override
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        return run(() -> stream.reduce(identity, accumulator));
+    }
+
+    @Override
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        return run(() -> stream.reduce(accumulator));
+    }
+
+    @Override
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator,
+                        BinaryOperator<U> combiner) {
+        return run(() -> stream.reduce(identity, accumulator, combiner));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier,
+                         BiConsumer<R, ? super T> accumulator,
+                         BiConsumer<R, R> combiner) {
+        return run(() -> stream.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        return run(() -> stream.collect(collector));
+    }
+
+    @Override
+    public Optional<T> min(Comparator<? super T> comparator) {
+        return run(() -> stream.min(comparator));
+    }
+
+    @Override
+    public Optional<T> max(Comparator<? super T> comparator) {
+        return run(() -> stream.max(comparator));
+    }
+
+    @Override
+    public long count() {
+        return run(() -> stream.count());
+    }
+
+    @Override
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return run(() -> stream.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(Predicate<? super T> predicate) {
+        return run(() -> stream.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(Predicate<? super T> predicate) {
+        return run(() -> stream.noneMatch(predicate));
+    }
+
+    @Override
+    public Optional<T> findFirst() {
+        return run(() -> stream.findFirst());
+    }
+
+    @Override
+    public Optional<T> findAny() {
+        return run(() -> stream.findAny());
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return stream.iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return stream.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+
+    @Override
+    public Stream<T> sequential() {
+        return wrap(stream.sequential());
+    }
+
+    @Override
+    public Stream<T> parallel() {
+        return wrap(stream.parallel());
+    }
+
+    @Override
+    public Stream<T> unordered() {
+        return wrap(stream.unordered());
+    }
+
+    @Override
+    public Stream<T> onClose(Runnable closeHandler) {
+        return wrap(stream.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Triple;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterator over a range of rows of a table of distinct triples, creating
+ * each {@link Triple} as it is reached.
+ * <p>
+ * The range is split in halves, so parallel streams get parts of exactly
+ * known and even size.
+ */
+final class RowSpliterator implements Spliterator<Triple> {
+
+    private final IntFunction<Triple> rows;
+    private final int characteristics;
+    private int from;
+    private final int to;
+
+    /**
+     * @param rows            Creates the triple of a row
+     * @param from            The first row, inclusive
+     * @param to              The last row, exclusive
+     * @param characteristics Characteristics to report besides SIZED,
+     *                        SUBSIZED, DISTINCT and NONNULL
+     */
+    RowSpliterator(IntFunction<Triple> rows, int from, int to,
+                   int characteristics) {
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+        this.characteristics = characteristics | Spliterator.SIZED
+                | Spliterator.SUBSIZED | Spliterator.DISTINCT
+                | Spliterator.NONNULL;
+    }
+
+    @Override
+    public Spliterator<Triple> trySplit() {
+        int mid = (from + to) >>> 1;
+        if (mid <= from) {
+            return null;
+        }
+        RowSpliterator prefix = new RowSpliterator(rows, from, mid,
+                characteristics);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Triple> action) {
+        if (from >= to) {
+            return false;
+        }
+        action.accept(rows.apply(from++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Triple> action) {
+        for (int row = from; row < to; row++) {
+            action.accept(rows.apply(row));
+        }
+        from = to;
+    }
+
+    @Override
+    public long estimateSize() {
+        return to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+}
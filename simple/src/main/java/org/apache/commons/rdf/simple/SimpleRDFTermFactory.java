@@ -17,7 +17,15 @@
  */
 package org.apache.commons.rdf.simple;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
 import org.apache.commons.rdf.api.*;
 
@@ -27,13 +35,91 @@ import org.apache.commons.rdf.api.*;
  * The {@link RDFTerm} and {@link Graph} instances created by this factory are
  * simple in-memory Implementations that are not thread-safe or efficient, but
  * which may be useful for testing and prototyping purposes.
+ * <p>
+ * IRIs are interned: {@link #createIRI(String)} keeps a bounded cache of the
+ * IRIs it created, so that an IRI string that is used again gives the same
+ * {@link IRI} instance without being validated again, as long as it has not
+ * been evicted. IRI strings are checked by an {@link IRIValidator}, by default
+ * {@link IRIValidator#STRICT}. The factory itself is thread-safe.
+ * <p>
+ * Literals created from Java values, such as by {@link #createLiteral(long)},
+ * keep the native value and only format their lexical form when it is asked
+ * for. How {@link #createLiteralDynamic(Object)} converts values can be
+ * changed with {@link #registerLiteralConverter(Class, BiFunction)}, so unlike
+ * the terms it creates, the factory is not {@link Immutable}.
+ * <p>
+ * The graphs of the factory run their streams as set by a
+ * {@link StreamPolicy}, by default {@link StreamPolicy#DEFAULT}.
  */
-public class SimpleRDFTermFactory implements RDFContext,Immutable {
+public class SimpleRDFTermFactory implements RDFContext {
+
+    /**
+     * Number of IRIs cached by {@link #SimpleRDFTermFactory()}.
+     */
+    public static final int DEFAULT_IRI_CACHE_SIZE = 16 * 1024;
 
     /** Unique salt per instance, for {@link #createBlankNode(String)}
      */
     private final UUID SALT = UUID.randomUUID();
 
+    private final BoundedCache<String, IRI> iris;
+    private final IRIValidator validator;
+    private final StreamPolicy streamPolicy;
+    private final LiteralConverters converters = new LiteralConverters();
+
+    /**
+     * Create a factory caching up to {@link #DEFAULT_IRI_CACHE_SIZE} IRIs.
+     */
+    public SimpleRDFTermFactory() {
+        this(DEFAULT_IRI_CACHE_SIZE);
+    }
+
+    /**
+     * Create a factory caching up to about the given number of IRIs.
+     *
+     * @param iriCacheSize The number of IRIs to cache, or 0 to create a new
+     *                     IRI on every call to {@link #createIRI(String)}
+     */
+    public SimpleRDFTermFactory(int iriCacheSize) {
+        this(iriCacheSize, IRIValidator.STRICT);
+    }
+
+    /**
+     * Create a factory caching up to about the given number of IRIs, and
+     * validating them in the given mode.
+     *
+     * @param iriCacheSize The number of IRIs to cache, or 0 to create a new
+     *                     IRI on every call to {@link #createIRI(String)}
+     * @param validator    How {@link #createIRI(String)} validates IRIs
+     */
+    public SimpleRDFTermFactory(int iriCacheSize, IRIValidator validator) {
+        this(iriCacheSize, validator, StreamPolicy.DEFAULT);
+    }
+
+    /**
+     * Create a factory caching up to about the given number of IRIs,
+     * validating them in the given mode, and creating graphs that run their
+     * streams as set by the given policy.
+     *
+     * @param iriCacheSize The number of IRIs to cache, or 0 to create a new
+     *                     IRI on every call to {@link #createIRI(String)}
+     * @param validator    How {@link #createIRI(String)} validates IRIs
+     * @param streamPolicy How the graphs of this factory run their streams
+     */
+    public SimpleRDFTermFactory(int iriCacheSize, IRIValidator validator,
+                                StreamPolicy streamPolicy) {
+        iris = new BoundedCache<>(iriCacheSize);
+        this.validator = Objects.requireNonNull(validator);
+        this.streamPolicy = Objects.requireNonNull(streamPolicy);
+    }
+
+    /**
+     * @return How the graphs of this factory run their streams
+     */
+    public StreamPolicy getStreamPolicy() {
+        return streamPolicy;
+    }
+
     @Override
     public BlankNode createBlankNode() {
         return new BlankNodeImpl(this);
@@ -53,9 +139,8 @@ public class SimpleRDFTermFactory implements RDFContext,Immutable {
 
     @Override
     public IRI createIRI(String iri) {
-        IRI result = new IRIImpl(this,iri);
-        // Reuse any IRI objects already created in Types
-        return Types.get(result).orElse(result);
+        return iris.get(Objects.requireNonNull(iri),
+                string -> IRIImpl.fromTrusted(this, validator.validate(string)));
     }
 
     @Override
@@ -73,6 +158,90 @@ public class SimpleRDFTermFactory implements RDFContext,Immutable {
         return new LiteralImpl(this,literal, language);
     }
 
+    @Override
+    public Literal createLiteral(long value) {
+        return new LongLiteral(this, value);
+    }
+
+    @Override
+    public Literal createLiteral(BigDecimal value) {
+        return new DecimalLiteral(this, value);
+    }
+
+    @Override
+    public Literal createLiteral(float value) {
+        return new DoubleLiteral(this, value);
+    }
+
+    @Override
+    public Literal createLiteral(double value) {
+        return new DoubleLiteral(this, value);
+    }
+
+    @Override
+    public Literal createLiteral(boolean value) {
+        return new BooleanLiteral(this, value);
+    }
+
+    @Override
+    public Literal createLiteral(OffsetDateTime value) {
+        return new TemporalLiteral(this, value, Types.XSD_DATETIME);
+    }
+
+    @Override
+    public Literal createLiteral(LocalDateTime value) {
+        return new TemporalLiteral(this, value, Types.XSD_DATETIME);
+    }
+
+    @Override
+    public Literal createLiteral(LocalDate value) {
+        return new TemporalLiteral(this, value, Types.XSD_DATE);
+    }
+
+    @Override
+    public Literal createLiteral(LocalTime value) {
+        return new TemporalLiteral(this, value, Types.XSD_TIME);
+    }
+
+    @Override
+    public Literal createLiteral(OffsetTime value) {
+        return new TemporalLiteral(this, value, Types.XSD_TIME);
+    }
+
+    /**
+     * Create a literal from a Java value with the converter registered for its
+     * type, as described in
+     * {@link #registerLiteralConverter(Class, BiFunction)}.
+     *
+     * @throws UnsupportedOperationException If no converter is registered for
+     *                                       the type of the value
+     */
+    @Override
+    public Literal createLiteralDynamic(Object o) {
+        return converters.convert(this, Objects.requireNonNull(o));
+    }
+
+    /**
+     * Register how {@link #createLiteralDynamic(Object)} converts values of a
+     * type, replacing any converter registered for the same type.
+     * <p>
+     * A value is converted by the converter of its class, or else of its
+     * nearest superclass, or else of the first of its interfaces found
+     * breadth-first. Converters are initially registered for the types
+     * supported by {@link RDFContext#createLiteralDynamic(Object)}, and for
+     * <code>Double</code> and <code>Float</code>. Lookups are cached by class,
+     * so converting a value costs one hash lookup.
+     *
+     * @param type      The type of values to convert
+     * @param converter Creates a literal from a value, given this factory
+     * @param <T>       The type of values to convert
+     */
+    public <T> void registerLiteralConverter(Class<T> type,
+            BiFunction<? super RDFContext, ? super T, ? extends Literal> converter) {
+        converters.register(Objects.requireNonNull(type),
+                Objects.requireNonNull(converter));
+    }
+
     @Override
     public Triple createTriple(BlankNodeOrIRI subject, IRI predicate,
                                RDFTerm object) {
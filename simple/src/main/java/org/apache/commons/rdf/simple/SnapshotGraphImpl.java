@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.*;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * A multi-version implementation of Graph with snapshot isolation.
+ * <p>
+ * Each version of the graph is an immutable {@link PersistentTripleSet}, and
+ * the current version is held in an {@link AtomicReference}. Readers take
+ * the current version when they start, so {@link #getTriples()} and
+ * {@link #iterate()} see a consistent point-in-time snapshot of the graph
+ * however long they run, while writers carry on. Writers create a new
+ * version, sharing most of the old one, and install it with a
+ * compare-and-set, retrying if another writer got there first. No locks are
+ * taken, so readers never block writers and writers never block readers.
+ * Old versions are reclaimed by the garbage collector once no reader holds
+ * them.
+ * <p>
+ * Patterns are matched by scanning the snapshot, so this graph suits
+ * streaming over the whole graph better than selective lookups.
+ * <p>
+ * All Stream operations are performed using unordered directives, and are
+ * sequential or parallel as set by the {@link StreamPolicy} of the factory
+ * for the size of the snapshot.
+ */
+final class SnapshotGraphImpl extends AbstractGraph {
+
+    private final AtomicReference<PersistentTripleSet> current =
+            new AtomicReference<>(PersistentTripleSet.EMPTY);
+
+    SnapshotGraphImpl(RDFContext factory) {
+        super(factory);
+    }
+
+    @Override
+    public void add(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        Triple triple = factory.createTriple(
+                (BlankNodeOrIRI) internallyMap(subject),
+                (IRI) internallyMap(predicate), internallyMap(object));
+        current.updateAndGet(triples -> triples.plus(triple));
+    }
+
+    @Override
+    public void add(Triple triple) {
+        Triple local = internallyMap(triple);
+        current.updateAndGet(triples -> triples.plus(local));
+    }
+
+    @Override
+    public void clear() {
+        current.set(PersistentTripleSet.EMPTY);
+    }
+
+    @Override
+    public boolean contains(BlankNodeOrIRI subject, IRI predicate,
+                            RDFTerm object) {
+        return getTriples(subject, predicate, object).findAny().isPresent();
+    }
+
+    @Override
+    public boolean contains(Triple triple) {
+        return current.get().contains(internallyMap(Objects.requireNonNull(triple)));
+    }
+
+    @Override
+    public Stream<Triple> getTriples() {
+        PersistentTripleSet snapshot = current.get();
+        return streamPolicy.apply(snapshot.stream(), snapshot.size())
+                .unordered();
+    }
+
+    @Override
+    public Stream<Triple> getTriples(final BlankNodeOrIRI subject,
+                                     final IRI predicate, final RDFTerm object) {
+        PersistentTripleSet snapshot = current.get();
+        return streamPolicy.apply(match(snapshot,
+                (BlankNodeOrIRI) internallyMap(subject),
+                (IRI) internallyMap(predicate), internallyMap(object)),
+                snapshot.size()).unordered();
+    }
+
+    @Override
+    public Iterable<Triple> iterate() {
+        PersistentTripleSet snapshot = current.get();
+        return snapshot::iterator;
+    }
+
+    @Override
+    public void remove(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        BlankNodeOrIRI s = (BlankNodeOrIRI) internallyMap(subject);
+        IRI p = (IRI) internallyMap(predicate);
+        RDFTerm o = internallyMap(object);
+        // Remove the matches of the version being replaced, atomically
+        current.updateAndGet(triples -> {
+            PersistentTripleSet result = triples;
+            Iterator<Triple> matches = match(triples, s, p, o).iterator();
+            while (matches.hasNext()) {
+                result = result.minus(matches.next());
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public void remove(Triple triple) {
+        Triple local = internallyMap(Objects.requireNonNull(triple));
+        current.updateAndGet(triples -> triples.minus(local));
+    }
+
+    @Override
+    public long size() {
+        return current.get().size();
+    }
+
+    private static Stream<Triple> match(PersistentTripleSet triples,
+                                        BlankNodeOrIRI subject, IRI predicate,
+                                        RDFTerm object) {
+        return triples.stream().filter(t ->
+                (subject == null || t.getSubject().equals(subject))
+                        && (predicate == null || t.getPredicate().equals(predicate))
+                        && (object == null || t.getObject().equals(object)));
+    }
+
+}
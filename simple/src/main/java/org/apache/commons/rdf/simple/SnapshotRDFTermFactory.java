@@ -0,0 +1,42 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * A {@link SimpleRDFTermFactory} whose graphs give readers snapshot isolation.
+ * <p>
+ * The {@link Graph} instances created by this factory keep every version of
+ * their triples that is still being read. {@link Graph#getTriples()} and
+ * {@link Graph#iterate()} read the graph as it was when they were called,
+ * while other threads keep adding and removing triples, without locking:
+ * readers never block writers, and writers never block readers.
+ * <p>
+ * All other {@link RDFTerm} instances are created as by
+ * {@link SimpleRDFTermFactory}.
+ */
+public class SnapshotRDFTermFactory extends SimpleRDFTermFactory {
+
+    @Override
+    public Graph createGraph() {
+        return new SnapshotGraphImpl(this);
+    }
+
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * How the graphs of a {@link SimpleRDFTermFactory} run their streams.
+ * <p>
+ * A stream that is expected to visit fewer triples than the threshold is
+ * sequential, as for small graphs and selective patterns the cost of
+ * splitting the work between threads outweighs the work itself. Larger
+ * streams are parallel.
+ * <p>
+ * Parallel streams run in the common {@link ForkJoinPool}, or in a dedicated
+ * pool if one is given. In that case the terminal operations of the
+ * {@link Stream}s handed out are submitted to the pool, which keeps bulk work
+ * on graphs from competing with other users of the common pool. Streams
+ * converted to primitive streams with e.g.
+ * {@link Stream#mapToInt(java.util.function.ToIntFunction)} run in the
+ * common pool.
+ */
+public final class StreamPolicy {
+
+    /**
+     * Number of triples from which {@link #DEFAULT} runs streams in parallel.
+     */
+    public static final long DEFAULT_THRESHOLD = 8 * 1024;
+
+    /**
+     * Parallel streams from {@link #DEFAULT_THRESHOLD} triples, in the common
+     * pool.
+     */
+    public static final StreamPolicy DEFAULT = new StreamPolicy(DEFAULT_THRESHOLD);
+
+    /**
+     * Sequential streams only.
+     */
+    public static final StreamPolicy SEQUENTIAL = new StreamPolicy(Long.MAX_VALUE);
+
+    /**
+     * Parallel streams only, in the common pool.
+     */
+    public static final StreamPolicy PARALLEL = new StreamPolicy(0);
+
+    private final long threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a policy running parallel streams in the common pool.
+     *
+     * @param threshold The number of triples from which streams are parallel
+     */
+    public StreamPolicy(long threshold) {
+        this.threshold = threshold;
+        this.pool = null;
+    }
+
+    /**
+     * Create a policy running parallel streams in the given pool.
+     *
+     * @param threshold The number of triples from which streams are parallel
+     * @param pool      The pool to run parallel streams in
+     */
+    public StreamPolicy(long threshold, ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * @return The number of triples from which streams are parallel
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @return The pool parallel streams run in, or empty for the common pool
+     */
+    public Optional<ForkJoinPool> getPool() {
+        return Optional.ofNullable(pool);
+    }
+
+    /**
+     * Check if a stream visiting the given number of elements should be
+     * parallel.
+     *
+     * @param size The expected number of elements
+     * @return true if the stream should be parallel
+     */
+    public boolean isParallel(long size) {
+        return size >= threshold;
+    }
+
+    /**
+     * Make a stream sequential or parallel, depending on how many elements
+     * it is expected to visit.
+     *
+     * @param stream The stream to run
+     * @param size   The expected number of elements
+     * @param <T>    The type of the stream elements
+     * @return The stream, running as set by this policy
+     */
+    public <T> Stream<T> apply(Stream<T> stream, long size) {
+        if (!isParallel(size)) {
+            return stream.sequential();
+        }
+        Stream<T> parallel = stream.parallel();
+        return pool == null ? parallel : new PooledStream<>(parallel, pool);
+    }
+
+    /**
+     * Count the elements of a stream as set by this policy.
+     */
+    long count(IntStream stream, long size) {
+        if (!isParallel(size)) {
+            return stream.sequential().count();
+        }
+        IntStream parallel = stream.parallel();
+        return pool == null ? parallel.count()
+                : pool.invoke(ForkJoinTask.adapt(parallel::count));
+    }
+
+    @Override
+    public String toString() {
+        return "StreamPolicy[threshold=" + threshold
+                + (pool == null ? "" : ", pool=" + pool) + "]";
+    }
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+
+import java.time.temporal.Temporal;
+import java.util.Objects;
+
+/**
+ * An <code>xsd:dateTime</code>, <code>xsd:date</code> or
+ * <code>xsd:time</code> literal holding a {@link Temporal}.
+ */
+final class TemporalLiteral extends NativeLiteral {
+
+    private final Temporal value;
+
+    /**
+     * @param context  The context of the literal
+     * @param value    The value, whose {@link Object#toString()} must be a
+     *                 lexical form of the datatype
+     * @param dataType One of {@link Types#XSD_DATETIME}, {@link Types#XSD_DATE}
+     *                 or {@link Types#XSD_TIME}
+     */
+    TemporalLiteral(RDFContext context, Temporal value, IRI dataType) {
+        super(context, dataType);
+        this.value = Objects.requireNonNull(value);
+    }
+
+    @Override
+    String format() {
+        return value.toString();
+    }
+
+    @Override
+    public Temporal asTemporal() {
+        return value;
+    }
+
+}
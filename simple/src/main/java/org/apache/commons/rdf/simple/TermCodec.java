@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary encoding of {@link RDFTerm}s.
+ * <p>
+ * An encoded term is a kind byte followed by UTF-8 text, where an unpaired
+ * surrogate is encoded as the three bytes of its own code unit:
+ * <ul>
+ * <li>IRI: the IRI string</li>
+ * <li>blank node: the {@link BlankNode#uniqueReference()}</li>
+ * <li>xsd:string literal: the lexical form</li>
+ * <li>typed literal: the length of the lexical form in bytes as a big-endian
+ * <code>int</code>, the lexical form and the datatype IRI string</li>
+ * <li>language-tagged literal: the length of the lexical form in bytes as a
+ * big-endian <code>int</code>, the lexical form and the language tag</li>
+ * </ul>
+ * The length of the whole encoding is kept by the caller. Two terms are equal
+ * if and only if their encodings are equal byte by byte, so encodings can be
+ * hashed and compared without decoding them.
+ */
+final class TermCodec {
+
+    static final byte IRI_KIND = 1;
+    static final byte BLANK_NODE_KIND = 2;
+    static final byte STRING_KIND = 3;
+    static final byte TYPED_KIND = 4;
+    static final byte LANGUAGE_KIND = 5;
+
+    private TermCodec() {
+    }
+
+    /**
+     * Number of bytes {@link #encode(RDFTerm, ByteBuffer)} will write.
+     *
+     * @param term The term to measure
+     * @return The length of the encoded term in bytes
+     */
+    static int encodedLength(RDFTerm term) {
+        if (term instanceof IRI) {
+            return 1 + utf8Length(((IRI) term).getIRIString());
+        }
+        if (term instanceof BlankNode) {
+            return 1 + utf8Length(((BlankNode) term).uniqueReference());
+        }
+        Literal literal = (Literal) term;
+        int lexical = utf8Length(literal.getLexicalForm());
+        if (literal.getLanguageTag().isPresent()) {
+            return 5 + lexical + utf8Length(literal.getLanguageTag().get());
+        }
+        if (Types.XSD_STRING.equals(literal.getDatatype())) {
+            return 1 + lexical;
+        }
+        return 5 + lexical + utf8Length(literal.getDatatype().getIRIString());
+    }
+
+    /**
+     * Encode a term at the position of a buffer, advancing the position.
+     *
+     * @param term   The term to encode
+     * @param buffer A buffer with at least {@link #encodedLength(RDFTerm)}
+     *               bytes remaining
+     */
+    static void encode(RDFTerm term, ByteBuffer buffer) {
+        if (term instanceof IRI) {
+            buffer.put(IRI_KIND);
+            putUTF8(buffer, ((IRI) term).getIRIString());
+        } else if (term instanceof BlankNode) {
+            buffer.put(BLANK_NODE_KIND);
+            putUTF8(buffer, ((BlankNode) term).uniqueReference());
+        } else {
+            Literal literal = (Literal) term;
+            String lexicalForm = literal.getLexicalForm();
+            if (literal.getLanguageTag().isPresent()) {
+                buffer.put(LANGUAGE_KIND);
+                putLength(buffer, utf8Length(lexicalForm));
+                putUTF8(buffer, lexicalForm);
+                putUTF8(buffer, literal.getLanguageTag().get());
+            } else if (Types.XSD_STRING.equals(literal.getDatatype())) {
+                buffer.put(STRING_KIND);
+                putUTF8(buffer, lexicalForm);
+            } else {
+                buffer.put(TYPED_KIND);
+                putLength(buffer, utf8Length(lexicalForm));
+                putUTF8(buffer, lexicalForm);
+                putUTF8(buffer, literal.getDatatype().getIRIString());
+            }
+        }
+    }
+
+    /**
+     * Decode a term, without changing the position of the buffer.
+     * <p>
+     * The encoding is trusted to come from {@link #encode(RDFTerm, ByteBuffer)},
+     * so the decoded terms are not validated again.
+     *
+     * @param buffer  The buffer to read from
+     * @param offset  Absolute offset of the encoded term
+     * @param length  Length of the encoded term in bytes
+     * @param factory The factory to create the term with
+     * @return The decoded term
+     */
+    static RDFTerm decode(ByteBuffer buffer, int offset, int length,
+                          RDFContext factory) {
+        int end = offset + length;
+        switch (buffer.get(offset)) {
+            case IRI_KIND:
+                return IRIImpl.fromTrusted(factory,
+                        getUTF8(buffer, offset + 1, end));
+            case BLANK_NODE_KIND:
+                return BlankNodeImpl.fromReference(factory,
+                        getUTF8(buffer, offset + 1, end));
+            case STRING_KIND:
+                return LiteralImpl.fromTrusted(factory,
+                        getUTF8(buffer, offset + 1, end), Types.XSD_STRING, null);
+            case TYPED_KIND: {
+                int split = offset + 5 + getLength(buffer, offset + 1);
+                return LiteralImpl.fromTrusted(factory,
+                        getUTF8(buffer, offset + 5, split),
+                        IRIImpl.fromTrusted(factory, getUTF8(buffer, split, end)),
+                        null);
+            }
+            case LANGUAGE_KIND: {
+                int split = offset + 5 + getLength(buffer, offset + 1);
+                return LiteralImpl.fromTrusted(factory,
+                        getUTF8(buffer, offset + 5, split),
+                        Types.RDF_LANGSTRING,
+                        LanguageTags.canonical(getUTF8(buffer, split, end)));
+            }
+            default:
+                throw new IllegalStateException("Unknown term kind "
+                        + buffer.get(offset) + " at offset " + offset);
+        }
+    }
+
+    /**
+     * Hash an encoded term. The hash only depends on the bytes, so it is
+     * stable across JVMs and byte orders and may be stored.
+     *
+     * @param buffer The buffer holding the encoding
+     * @param offset Absolute offset of the encoded term
+     * @param length Length of the encoded term in bytes
+     * @return The hash of the encoded term
+     */
+    static int hash(ByteBuffer buffer, int offset, int length) {
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            h = 31 * h + buffer.get(i);
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Number of bytes needed to encode a string as UTF-8. Unpaired surrogates
+     * count three bytes, like other chars from <code>U+0800</code>.
+     *
+     * @param s The string to measure
+     * @return The UTF-8 length of the string
+     */
+    static int utf8Length(CharSequence s) {
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    // 4 bytes for the pair of chars
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode a string as UTF-8 at the position of a buffer, advancing the
+     * position. Unpaired surrogates are encoded like other chars from
+     * <code>U+0800</code>, rather than replaced, so that different strings
+     * never share an encoding.
+     *
+     * @param buffer The buffer to write to
+     * @param s      The string to encode
+     */
+    static void putUTF8(ByteBuffer buffer, CharSequence s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static void putLength(ByteBuffer buffer, int length) {
+        // Independent of the byte order of the buffer
+        buffer.put((byte) (length >>> 24));
+        buffer.put((byte) (length >>> 16));
+        buffer.put((byte) (length >>> 8));
+        buffer.put((byte) length);
+    }
+
+    private static int getLength(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset) & 0xFF) << 24
+                | (buffer.get(offset + 1) & 0xFF) << 16
+                | (buffer.get(offset + 2) & 0xFF) << 8
+                | (buffer.get(offset + 3) & 0xFF);
+    }
+
+    /**
+     * Decode what {@link #putUTF8(ByteBuffer, CharSequence)} wrote. The
+     * standard decoder would replace the unpaired surrogates.
+     */
+    private static String getUTF8(ByteBuffer buffer, int start, int end) {
+        char[] chars = new char[end - start];
+        int length = 0;
+        int i = start;
+        while (i < end) {
+            int b = buffer.get(i);
+            if (b >= 0) {
+                chars[length++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[length++] = (char) ((b & 0x1F) << 6
+                        | buffer.get(i + 1) & 0x3F);
+                i += 2;
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[length++] = (char) ((b & 0x0F) << 12
+                        | (buffer.get(i + 1) & 0x3F) << 6
+                        | buffer.get(i + 2) & 0x3F);
+                i += 3;
+            } else {
+                int cp = (b & 0x07) << 18
+                        | (buffer.get(i + 1) & 0x3F) << 12
+                        | (buffer.get(i + 2) & 0x3F) << 6
+                        | buffer.get(i + 3) & 0x3F;
+                chars[length++] = Character.highSurrogate(cp);
+                chars[length++] = Character.lowSurrogate(cp);
+                i += 4;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * A dictionary assigning dense integer identifiers to {@link RDFTerm}s.
+ * <p>
+ * Identifiers are allocated from <code>0</code> upwards in the order terms are
+ * first interned, and are never reused.
+ */
+interface TermDictionary {
+
+    /**
+     * Value returned by {@link #lookup(RDFTerm)} for an unknown term.
+     */
+    int NOT_FOUND = -1;
+
+    /**
+     * Look up the identifier of a term, allocating one if the term is new.
+     *
+     * @param term The term to intern
+     * @return The identifier of the term
+     */
+    int intern(RDFTerm term);
+
+    /**
+     * Look up the identifier of a term without allocating one.
+     *
+     * @param term The term to look up
+     * @return The identifier of the term, or {@link #NOT_FOUND}
+     */
+    int lookup(RDFTerm term);
+
+    /**
+     * Get the term for an identifier.
+     *
+     * @param id An identifier previously returned by {@link #intern(RDFTerm)}
+     * @return The term with the given identifier
+     */
+    RDFTerm term(int id);
+
+    /**
+     * Number of terms in the dictionary.
+     *
+     * @return The number of interned terms
+     */
+    int size();
+
+    /**
+     * Release any memory held outside the Java heap. The dictionary must not
+     * be used afterwards.
+     */
+    default void close() {
+    }
+
+}
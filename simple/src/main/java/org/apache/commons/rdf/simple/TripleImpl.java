@@ -23,12 +23,17 @@ import java.util.Objects;
 
 /**
  * A simple implementation of Triple.
+ * <p>
+ * The hash of a triple is computed from the cached hashes of its terms when
+ * first needed, and then kept.
  */
-final class TripleImpl extends RDFImpl implements Triple {
+final class TripleImpl extends RDFImpl implements Triple, Fingerprinted {
 
     private final BlankNodeOrIRI subject;
     private final IRI predicate;
     private final RDFTerm object;
+    /** Computed when first needed, 0 until then */
+    private volatile long fingerprint;
 
     /**
      * Construct Triple from its constituent parts.
@@ -64,14 +69,21 @@ final class TripleImpl extends RDFImpl implements Triple {
 
     @Override
     public String toString() {
-        return getSubject().ntriplesString() + " "
-                + getPredicate().ntriplesString() + " "
-                + getObject().ntriplesString() + " .";
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    @Override
+    public long fingerprint() {
+        long h = fingerprint;
+        if (h == 0) {
+            fingerprint = h = Hashing.triple(subject, predicate, object);
+        }
+        return h;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(subject, predicate, object);
+        return Hashing.hashCode(fingerprint());
     }
 
     @Override
@@ -0,0 +1,691 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Three permuted nested-map indexes over a set of {@link Triple}s.
+ * <p>
+ * Every triple is reachable as <em>subject &rarr; predicate &rarr; object</em>
+ * (SPO), <em>predicate &rarr; object &rarr; subject</em> (POS) and
+ * <em>object &rarr; subject &rarr; predicate</em> (OSP). Between them these
+ * cover all eight bound/unbound combinations of a triple pattern with a
+ * prefix lookup, so matching costs time in proportion to the number of
+ * matches rather than the number of triples.
+ * <p>
+ * The leaves of all three indexes hold the same {@link Triple} instance, so
+ * the triples handed out are those that were added.
+ * <p>
+ * Each first-level entry keeps the number of triples below it, so that
+ * {@link #count(BlankNodeOrIRI, IRI, RDFTerm)} takes constant time for any
+ * pattern. The subjects of SPO are also kept in a list, with running totals
+ * of their triples, so that {@link #spliterator()} can split them by triple
+ * count.
+ * <p>
+ * Triples added by {@link #addDeferred(Triple)} only go into SPO at first;
+ * POS and OSP are filled in for all of them at once when they are next
+ * needed.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class TripleIndex {
+
+    private final Map<RDFTerm, Branch> spo = new HashMap<>();
+    private final Map<RDFTerm, Branch> pos = new HashMap<>();
+    private final Map<RDFTerm, Branch> osp = new HashMap<>();
+    private final Subjects subjects = new Subjects();
+    private long size;
+    /** Triples in SPO that are not yet in POS and OSP */
+    private ArrayList<Triple> unindexed = new ArrayList<>();
+
+    /**
+     * Add a triple to all three indexes.
+     *
+     * @param triple The triple to add
+     * @return true if the triple was not already indexed
+     */
+    boolean add(Triple triple) {
+        RDFTerm s = triple.getSubject();
+        RDFTerm p = triple.getPredicate();
+        RDFTerm o = triple.getObject();
+        Branch branch = put(spo, s, p, o, triple);
+        if (branch == null) {
+            return false;
+        }
+        subjects.added(branch);
+        put(pos, p, o, s, triple);
+        put(osp, o, s, p, triple);
+        size++;
+        return true;
+    }
+
+    /**
+     * Add a triple to the SPO index only. It is added to POS and OSP, together
+     * with any other deferred triples, by the next operation that needs them.
+     *
+     * @param triple The triple to add
+     * @return true if the triple was not already indexed
+     */
+    boolean addDeferred(Triple triple) {
+        Branch branch = put(spo, triple.getSubject(), triple.getPredicate(),
+                triple.getObject(), triple);
+        if (branch == null) {
+            return false;
+        }
+        subjects.added(branch);
+        unindexed.add(triple);
+        size++;
+        return true;
+    }
+
+    /**
+     * Make room for deferred triples.
+     *
+     * @param count The number of triples expected, or -1 if unknown
+     */
+    void reserveDeferred(long count) {
+        if (count > 0) {
+            unindexed.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8,
+                    unindexed.size() + count));
+        }
+    }
+
+    /**
+     * Bring POS and OSP up to date with the deferred triples, filling one
+     * index at a time.
+     */
+    private void indexDeferred() {
+        if (unindexed.isEmpty()) {
+            return;
+        }
+        for (Triple triple : unindexed) {
+            put(pos, triple.getPredicate(), triple.getObject(),
+                    triple.getSubject(), triple);
+        }
+        for (Triple triple : unindexed) {
+            put(osp, triple.getObject(), triple.getSubject(),
+                    triple.getPredicate(), triple);
+        }
+        unindexed = new ArrayList<>();
+    }
+
+    /**
+     * Remove a triple from all three indexes.
+     *
+     * @param triple The triple to remove
+     * @return true if the triple was indexed
+     */
+    boolean remove(Triple triple) {
+        indexDeferred();
+        RDFTerm s = triple.getSubject();
+        RDFTerm p = triple.getPredicate();
+        RDFTerm o = triple.getObject();
+        Branch branch = delete(spo, s, p, o);
+        if (branch == null) {
+            return false;
+        }
+        subjects.removed(branch);
+        delete(pos, p, o, s);
+        delete(osp, o, s, p);
+        size--;
+        return true;
+    }
+
+    boolean contains(Triple triple) {
+        Branch ps = spo.get(triple.getSubject());
+        if (ps == null) {
+            return false;
+        }
+        Map<RDFTerm, Triple> os = ps.get(triple.getPredicate());
+        return os != null && os.containsKey(triple.getObject());
+    }
+
+    void clear() {
+        spo.clear();
+        pos.clear();
+        osp.clear();
+        subjects.clear();
+        unindexed = new ArrayList<>();
+        size = 0;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Get a spliterator over all the indexed triples.
+     * <p>
+     * It splits the list of subjects into parts with about the same number of
+     * triples. A part down to a single subject splits that subject by
+     * predicate, and a single predicate by object, so a few subjects with
+     * most of the triples are still shared out. All parts know their exact
+     * size.
+     *
+     * @return A spliterator over the indexed triples
+     */
+    Spliterator<Triple> spliterator() {
+        return new SubjectSpliterator(subjects, 0, subjects.size());
+    }
+
+    /**
+     * Count the indexed triples matching a pattern, in constant time.
+     *
+     * @param subject   The triple subject (null is a wildcard)
+     * @param predicate The triple predicate (null is a wildcard)
+     * @param object    The triple object (null is a wildcard)
+     * @return The number of matching triples
+     */
+    long count(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        if (subject != null) {
+            if (predicate != null) {
+                return count(spo, subject, predicate, object);
+            }
+            if (object == null) {
+                return count(spo, subject, null, null);
+            }
+            indexDeferred();
+            return count(osp, object, subject, null);
+        }
+        if (predicate != null) {
+            indexDeferred();
+            return count(pos, predicate, object, null);
+        }
+        if (object != null) {
+            indexDeferred();
+            return count(osp, object, null, null);
+        }
+        return size;
+    }
+
+    /**
+     * Stream the indexed triples matching a pattern.
+     * <p>
+     * The index is chosen so that all bound terms form a prefix of it.
+     *
+     * @param subject   The triple subject (null is a wildcard)
+     * @param predicate The triple predicate (null is a wildcard)
+     * @param object    The triple object (null is a wildcard)
+     * @return A sequential {@link Stream} over the matching triples
+     */
+    Stream<Triple> match(BlankNodeOrIRI subject, IRI predicate, RDFTerm object) {
+        if (subject != null) {
+            if (predicate != null) {
+                return select(spo, subject, predicate, object);
+            }
+            if (object == null) {
+                return select(spo, subject, null, null);
+            }
+            // s ? o is answered by OSP
+            indexDeferred();
+            return select(osp, object, subject, null);
+        }
+        if (predicate != null) {
+            indexDeferred();
+            return select(pos, predicate, object, null);
+        }
+        if (object != null) {
+            indexDeferred();
+            return select(osp, object, null, null);
+        }
+        return select(spo, null, null, null);
+    }
+
+    private static Stream<Triple> select(
+            Map<RDFTerm, Branch> index,
+            RDFTerm first, RDFTerm second, RDFTerm third) {
+        if (first == null) {
+            return index.values().stream()
+                    .flatMap(m -> m.values().stream())
+                    .flatMap(m -> m.values().stream());
+        }
+        Branch level2 = index.get(first);
+        if (level2 == null) {
+            return Stream.empty();
+        }
+        if (second == null) {
+            return level2.values().stream().flatMap(m -> m.values().stream());
+        }
+        Map<RDFTerm, Triple> level3 = level2.get(second);
+        if (level3 == null) {
+            return Stream.empty();
+        }
+        if (third == null) {
+            return level3.values().stream();
+        }
+        Triple triple = level3.get(third);
+        return triple == null ? Stream.empty() : Stream.of(triple);
+    }
+
+    private static long count(Map<RDFTerm, Branch> index, RDFTerm first,
+                              RDFTerm second, RDFTerm third) {
+        Branch level2 = index.get(first);
+        if (level2 == null) {
+            return 0;
+        }
+        if (second == null) {
+            return level2.triples;
+        }
+        Map<RDFTerm, Triple> level3 = level2.get(second);
+        if (level3 == null) {
+            return 0;
+        }
+        if (third == null) {
+            return level3.size();
+        }
+        return level3.containsKey(third) ? 1 : 0;
+    }
+
+    /**
+     * @return The branch the triple was added below, or null if it was
+     * already there
+     */
+    private static Branch put(
+            Map<RDFTerm, Branch> index,
+            RDFTerm first, RDFTerm second, RDFTerm third, Triple triple) {
+        Branch level2 = index.computeIfAbsent(first, k -> new Branch());
+        if (level2.computeIfAbsent(second, k -> new HashMap<>())
+                .putIfAbsent(third, triple) != null) {
+            return null;
+        }
+        level2.triples++;
+        return level2;
+    }
+
+    /**
+     * @return The branch the triple was removed from, or null if it was not
+     * there
+     */
+    private static Branch delete(
+            Map<RDFTerm, Branch> index,
+            RDFTerm first, RDFTerm second, RDFTerm third) {
+        Branch level2 = index.get(first);
+        if (level2 == null) {
+            return null;
+        }
+        Map<RDFTerm, Triple> level3 = level2.get(second);
+        if (level3 == null) {
+            return null;
+        }
+        if (level3.remove(third) == null) {
+            return null;
+        }
+        level2.triples--;
+        // Prune emptied branches so that lookups stay proportional to the
+        // live triples
+        if (level3.isEmpty()) {
+            level2.remove(second);
+            if (level2.isEmpty()) {
+                index.remove(first);
+            }
+        }
+        return level2;
+    }
+
+    /**
+     * The branches of SPO in a list, with a Fenwick tree over their numbers of
+     * triples, so that the triples before a position, and the position of the
+     * n-th triple, are found in logarithmic time. Removing the last triple of
+     * a branch moves the last branch of the list into its place.
+     */
+    private static final class Subjects {
+
+        private Branch[] branches = new Branch[16];
+        /** Fenwick tree over the triples of the branches, from index 1 */
+        private long[] tree = new long[17];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        Branch get(int position) {
+            return branches[position];
+        }
+
+        /**
+         * Account for a triple added below a branch.
+         */
+        void added(Branch branch) {
+            if (branch.position < 0) {
+                append(branch);
+            } else {
+                add(branch.position, 1);
+            }
+        }
+
+        /**
+         * Account for a triple removed from below a branch.
+         */
+        void removed(Branch branch) {
+            int position = branch.position;
+            add(position, -1);
+            if (branch.triples > 0) {
+                return;
+            }
+            Branch last = branches[size - 1];
+            if (last != branch) {
+                add(position, last.triples);
+                add(size - 1, -last.triples);
+                branches[position] = last;
+                last.position = position;
+            }
+            branches[--size] = null;
+            branch.position = -1;
+        }
+
+        void clear() {
+            branches = new Branch[16];
+            tree = new long[17];
+            size = 0;
+        }
+
+        private void append(Branch branch) {
+            if (size == branches.length) {
+                branches = Arrays.copyOf(branches, size * 2);
+                tree = Arrays.copyOf(tree, size * 2 + 1);
+            }
+            // The node covers the new branch and the branches just before it
+            int node = size + 1;
+            tree[node] = branch.triples + before(size)
+                    - before(node - (node & -node));
+            branches[size] = branch;
+            branch.position = size++;
+        }
+
+        private void add(int position, long triples) {
+            for (int node = position + 1; node <= size; node += node & -node) {
+                tree[node] += triples;
+            }
+        }
+
+        /**
+         * @return The number of triples below the branches before a position
+         */
+        long before(int position) {
+            long triples = 0;
+            for (int node = position; node > 0; node -= node & -node) {
+                triples += tree[node];
+            }
+            return triples;
+        }
+
+        /**
+         * @return The position of the branch holding the triple with the
+         * given number of triples before it
+         */
+        int find(long triple) {
+            int position = 0;
+            for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+                int node = position + step;
+                if (node <= size && tree[node] <= triple) {
+                    position = node;
+                    triple -= tree[node];
+                }
+            }
+            return position;
+        }
+
+    }
+
+    /**
+     * Spliterator over the triples below a range of entries, splitting the
+     * range into parts with about the same number of triples. A range of a
+     * single entry splits the entry instead. Sizes are exact.
+     */
+    private abstract static class RangeSpliterator implements Spliterator<Triple> {
+
+        private int from;
+        private final int to;
+        /** The triples of the entry in progress, or null */
+        private Spliterator<Triple> current;
+
+        RangeSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * @return The number of triples below the entries before a position
+         */
+        abstract long before(int position);
+
+        /**
+         * @return The position of the entry holding the triple with the given
+         * number of triples before it
+         */
+        abstract int find(long triple);
+
+        abstract RangeSpliterator part(int from, int to);
+
+        /**
+         * @return A spliterator over the triples below an entry, for splitting
+         */
+        abstract Spliterator<Triple> split(int position);
+
+        /**
+         * @return A spliterator over the triples below an entry, for
+         * traversing one at a time
+         */
+        abstract Spliterator<Triple> traverse(int position);
+
+        abstract void forEach(int position, Consumer<? super Triple> action);
+
+        @Override
+        public Spliterator<Triple> trySplit() {
+            if (to - from > 1) {
+                long first = before(from);
+                int mid = find(first + (before(to) - first) / 2);
+                mid = Math.max(from + 1, Math.min(mid, to - 1));
+                RangeSpliterator prefix = part(from, mid);
+                from = mid;
+                return prefix;
+            }
+            if (current == null) {
+                if (from == to) {
+                    return null;
+                }
+                current = split(from++);
+            } else if (from < to) {
+                RangeSpliterator prefix = part(from, to);
+                from = to;
+                return prefix;
+            }
+            return current.trySplit();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Triple> action) {
+            while (current == null || !current.tryAdvance(action)) {
+                if (from == to) {
+                    current = null;
+                    return false;
+                }
+                current = traverse(from++);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Triple> action) {
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            while (from < to) {
+                forEach(from++, action);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return (current == null ? 0 : current.estimateSize())
+                    + before(to) - before(from);
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED
+                    | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+    }
+
+    /**
+     * Splits the subjects of SPO.
+     */
+    private static final class SubjectSpliterator extends RangeSpliterator {
+
+        private final Subjects subjects;
+
+        SubjectSpliterator(Subjects subjects, int from, int to) {
+            super(from, to);
+            this.subjects = subjects;
+        }
+
+        @Override
+        long before(int position) {
+            return subjects.before(position);
+        }
+
+        @Override
+        int find(long triple) {
+            return subjects.find(triple);
+        }
+
+        @Override
+        RangeSpliterator part(int from, int to) {
+            return new SubjectSpliterator(subjects, from, to);
+        }
+
+        @Override
+        Spliterator<Triple> split(int position) {
+            return new PredicateSpliterator(subjects.get(position));
+        }
+
+        @Override
+        Spliterator<Triple> traverse(int position) {
+            Branch branch = subjects.get(position);
+            return Spliterators.spliterator(branch.values().stream()
+                    .flatMap(leaves -> leaves.values().stream()).iterator(),
+                    branch.triples, Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        void forEach(int position, Consumer<? super Triple> action) {
+            for (Map<RDFTerm, Triple> leaves : subjects.get(position).values()) {
+                for (Triple triple : leaves.values()) {
+                    action.accept(triple);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Splits the predicates below one subject.
+     */
+    private static final class PredicateSpliterator extends RangeSpliterator {
+
+        private final List<Map<RDFTerm, Triple>> leaves;
+        /** The triples below each predicate and those before it */
+        private final long[] ends;
+
+        PredicateSpliterator(Branch branch) {
+            this(new ArrayList<>(branch.values()), null, 0, branch.size());
+        }
+
+        private PredicateSpliterator(List<Map<RDFTerm, Triple>> leaves,
+                                     long[] ends, int from, int to) {
+            super(from, to);
+            this.leaves = leaves;
+            if (ends == null) {
+                ends = new long[leaves.size()];
+                long triples = 0;
+                for (int i = 0; i < ends.length; i++) {
+                    ends[i] = triples += leaves.get(i).size();
+                }
+            }
+            this.ends = ends;
+        }
+
+        @Override
+        long before(int position) {
+            return position == 0 ? 0 : ends[position - 1];
+        }
+
+        @Override
+        int find(long triple) {
+            int position = Arrays.binarySearch(ends, triple);
+            return position >= 0 ? position + 1 : -position - 1;
+        }
+
+        @Override
+        RangeSpliterator part(int from, int to) {
+            return new PredicateSpliterator(leaves, ends, from, to);
+        }
+
+        @Override
+        Spliterator<Triple> split(int position) {
+            return Spliterators.spliterator(leaves.get(position).values()
+                    .toArray(), Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        Spliterator<Triple> traverse(int position) {
+            return Spliterators.spliterator(leaves.get(position).values(),
+                    Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        void forEach(int position, Consumer<? super Triple> action) {
+            for (Triple triple : leaves.get(position).values()) {
+                action.accept(triple);
+            }
+        }
+
+    }
+
+    /**
+     * The second and third levels below a first-level term, with the number
+     * of triples they hold.
+     */
+    @SuppressWarnings("serial")
+    private static final class Branch extends HashMap<RDFTerm, Map<RDFTerm, Triple>> {
+
+        private long triples;
+        /** The position in {@link Subjects}, for branches of SPO */
+        private int position = -1;
+
+    }
+
+}
@@ -0,0 +1,309 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A set of dictionary-encoded triples, packed as rows of three
+ * <code>int</code>s.
+ * <p>
+ * Rows are kept densely in insertion order, except that removing a row moves
+ * the last row into its place. Duplicates are detected with an open-addressing
+ * hash table of row numbers using linear probing, kept at most half full.
+ * Including slack from growing, a triple costs between 20 and 40 bytes.
+ * <p>
+ * The rows and the hash table are either on the heap or in direct memory, in
+ * which case {@link #close()} releases the memory.
+ * <p>
+ * This class is not thread-safe, but concurrent reads are safe while no
+ * writer is active.
+ */
+final class TripleTable {
+
+    private static final int MIN_ROWS = 16;
+    /** Slots hold <code>row + 1</code>, so that 0 marks an empty slot */
+    private static final int EMPTY = 0;
+
+    private final boolean direct;
+    /** Direct memory behind {@link #rows} and {@link #slots}, if any */
+    private ByteBuffer rowMemory;
+    private ByteBuffer slotMemory;
+    private IntBuffer rows;
+    private IntBuffer slots;
+    private int mask;
+    private int size;
+
+    TripleTable() {
+        this(false);
+    }
+
+    /**
+     * Create an empty table.
+     *
+     * @param direct true to keep the table in direct memory
+     */
+    TripleTable(boolean direct) {
+        this.direct = direct;
+        clear();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int subject(int row) {
+        return rows.get(row * 3);
+    }
+
+    int predicate(int row) {
+        return rows.get(row * 3 + 1);
+    }
+
+    int object(int row) {
+        return rows.get(row * 3 + 2);
+    }
+
+    /**
+     * Check if a row matches a pattern of term identifiers.
+     *
+     * @param row The row to check
+     * @param s   Subject identifier, or a negative value as a wildcard
+     * @param p   Predicate identifier, or a negative value as a wildcard
+     * @param o   Object identifier, or a negative value as a wildcard
+     * @return true if all non-wildcard identifiers match the row
+     */
+    boolean matches(int row, int s, int p, int o) {
+        int base = row * 3;
+        return (s < 0 || rows.get(base) == s)
+                && (p < 0 || rows.get(base + 1) == p)
+                && (o < 0 || rows.get(base + 2) == o);
+    }
+
+    /**
+     * Find the row of a triple.
+     *
+     * @return The row number, or -1 if the triple is not in the table
+     */
+    int find(int s, int p, int o) {
+        int slot = slotOf(s, p, o);
+        return slot < 0 ? -1 : slots.get(slot) - 1;
+    }
+
+    /**
+     * Add a triple, unless already present.
+     *
+     * @return true if the triple was added
+     */
+    boolean add(int s, int p, int o) {
+        if (slotOf(s, p, o) >= 0) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        int base = size * 3;
+        rows.put(base, s);
+        rows.put(base + 1, p);
+        rows.put(base + 2, o);
+        slots.put(freeSlot(hash(s, p, o)), ++size);
+        return true;
+    }
+
+    /**
+     * Remove a triple, if present.
+     *
+     * @return true if the triple was removed
+     */
+    boolean remove(int s, int p, int o) {
+        int slot = slotOf(s, p, o);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Remove the triple in the given row. The last row is moved into its
+     * place, so when removing while scanning, scan from the last row down.
+     *
+     * @param row The row to remove
+     */
+    void removeRow(int row) {
+        removeAt(slotOf(subject(row), predicate(row), object(row)));
+    }
+
+    void clear() {
+        setRows(MIN_ROWS * 3, false);
+        setSlots(MIN_ROWS * 2);
+        size = 0;
+    }
+
+    /**
+     * Release the memory of the table. It must not be used afterwards.
+     */
+    void close() {
+        DirectBuffers.free(rowMemory);
+        DirectBuffers.free(slotMemory);
+        rowMemory = slotMemory = null;
+        rows = slots = null;
+    }
+
+    /**
+     * Make room for the given number of rows without further reallocation.
+     *
+     * @param capacity The number of rows to make room for
+     */
+    void ensureCapacity(int capacity) {
+        int maxRows = maxRows();
+        if (capacity > maxRows) {
+            throw new IllegalStateException("Too many triples: " + capacity);
+        }
+        if (capacity * 3 > rows.capacity()) {
+            int newRows = Math.max(capacity, Math.min(rows.capacity() / 3 * 2,
+                    maxRows));
+            setRows(newRows * 3, true);
+        }
+        if (capacity * 2 > slots.capacity()) {
+            int newSlots = Integer.highestOneBit(capacity * 2 - 1) << 1;
+            setSlots(newSlots);
+            for (int row = 0; row < size; row++) {
+                slots.put(freeSlot(hash(subject(row), predicate(row),
+                        object(row))), row + 1);
+            }
+        }
+    }
+
+    /**
+     * Make room for up to the given number of rows, as far as the table can
+     * grow.
+     *
+     * @param capacity The number of rows expected
+     */
+    void reserve(long capacity) {
+        ensureCapacity((int) Math.min(capacity, maxRows()));
+    }
+
+    private int maxRows() {
+        // Direct buffers are limited to 2 GB, which the slots reach first
+        return direct ? 1 << 27 : Integer.MAX_VALUE / 6;
+    }
+
+    private void setRows(int ints, boolean copy) {
+        ByteBuffer memory = null;
+        IntBuffer grown;
+        if (direct) {
+            memory = DirectBuffers.allocate(ints * 4L);
+            grown = memory.asIntBuffer();
+        } else {
+            grown = IntBuffer.allocate(ints);
+        }
+        if (copy) {
+            IntBuffer used = rows.duplicate();
+            used.clear();
+            used.limit(size * 3);
+            grown.put(used);
+            grown.clear();
+        }
+        DirectBuffers.free(rowMemory);
+        rowMemory = memory;
+        rows = grown;
+    }
+
+    private void setSlots(int ints) {
+        DirectBuffers.free(slotMemory);
+        if (direct) {
+            slotMemory = DirectBuffers.allocate(ints * 4L);
+            slots = slotMemory.asIntBuffer();
+        } else {
+            slots = IntBuffer.allocate(ints);
+        }
+        mask = ints - 1;
+    }
+
+    private int slotOf(int s, int p, int o) {
+        int i = hash(s, p, o) & mask;
+        for (int v; (v = slots.get(i)) != EMPTY; i = (i + 1) & mask) {
+            if (matches(v - 1, s, p, o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int freeSlot(int hash) {
+        int i = hash & mask;
+        while (slots.get(i) != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void removeAt(int slot) {
+        int row = slots.get(slot) - 1;
+        deleteSlot(slot);
+        int last = --size;
+        if (row != last) {
+            // Move the last row into the hole and repoint its slot
+            int s = subject(last);
+            int p = predicate(last);
+            int o = object(last);
+            int i = hash(s, p, o) & mask;
+            while (slots.get(i) != last + 1) {
+                i = (i + 1) & mask;
+            }
+            slots.put(i, row + 1);
+            int base = row * 3;
+            rows.put(base, s);
+            rows.put(base + 1, p);
+            rows.put(base + 2, o);
+        }
+    }
+
+    /**
+     * Empty a slot by shifting back later slots of the same probe sequence,
+     * so that lookups need no tombstones.
+     */
+    private void deleteSlot(int hole) {
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            int v = slots.get(j);
+            if (v == EMPTY) {
+                break;
+            }
+            int home = hash(subject(v - 1), predicate(v - 1), object(v - 1)) & mask;
+            // Leave the entry if its home lies cyclically in (hole, j]
+            boolean stays = hole <= j ? (hole < home && home <= j)
+                    : (hole < home || home <= j);
+            if (!stays) {
+                slots.put(hole, v);
+                hole = j;
+            }
+        }
+        slots.put(hole, EMPTY);
+    }
+
+    private static int hash(int s, int p, int o) {
+        int h = s * 0x9E3779B1;
+        h = (h ^ p) * 0x85EBCA6B;
+        h = (h ^ o) * 0xC2B2AE35;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -20,15 +20,39 @@ package org.apache.commons.rdf.simple;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFContext;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.temporal.Temporal;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
- * Types from the RDF and XML Schema vocabularies.
+ * Types from the RDF and XML Schema vocabularies, and a registry of
+ * datatypes.
+ * <p>
+ * The registry maps IRI strings to canonical {@link Types} instances, so that
+ * {@link #get(IRI)} costs one hash lookup. Besides the constants of this
+ * class, custom datatypes can be added with {@link #register(String, Function)}
+ * together with a parser of their values.
  */
-public final class Types extends RDFImpl implements IRI {
+public final class Types extends RDFImpl implements IRI, Fingerprinted {
+
+    /** The context shared by all datatypes */
+    private static final RDFContext CONTEXT = new SimpleRDFTermFactory(0);
+
+    /** Registered datatypes by IRI string; filled in by the constructor */
+    private static final Map<String, Types> REGISTRY = new ConcurrentHashMap<>();
 
     /**
      * <tt>http://www.w3.org/1999/02/22-rdf-syntax-ns#HTML</tt>
@@ -73,25 +97,25 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#boolean</tt>
      */
     public static final Types XSD_BOOLEAN = new Types(
-            "http://www.w3.org/2001/XMLSchema#boolean");
+            "http://www.w3.org/2001/XMLSchema#boolean", Types::parseBoolean);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#byte</tt>
      */
     public static final Types XSD_BYTE = new Types(
-            "http://www.w3.org/2001/XMLSchema#byte");
+            "http://www.w3.org/2001/XMLSchema#byte", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#date</tt>
      */
     public static final Types XSD_DATE = new Types(
-            "http://www.w3.org/2001/XMLSchema#date");
+            "http://www.w3.org/2001/XMLSchema#date", LocalDate::parse);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#dateTime</tt>
      */
     public static final Types XSD_DATETIME = new Types(
-            "http://www.w3.org/2001/XMLSchema#dateTime");
+            "http://www.w3.org/2001/XMLSchema#dateTime", Types::parseDateTime);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#dayTimeDuration</tt>
@@ -103,13 +127,13 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#decimal</tt>
      */
     public static final Types XSD_DECIMAL = new Types(
-            "http://www.w3.org/2001/XMLSchema#decimal");
+            "http://www.w3.org/2001/XMLSchema#decimal", BigDecimal::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#double</tt>
      */
     public static final Types XSD_DOUBLE = new Types(
-            "http://www.w3.org/2001/XMLSchema#double");
+            "http://www.w3.org/2001/XMLSchema#double", Types::parseDouble);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#duration</tt>
@@ -121,7 +145,7 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#float</tt>
      */
     public static final Types XSD_FLOAT = new Types(
-            "http://www.w3.org/2001/XMLSchema#float");
+            "http://www.w3.org/2001/XMLSchema#float", Types::parseFloat);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#gDay</tt>
@@ -163,13 +187,13 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#int</tt>
      */
     public static final Types XSD_INT = new Types(
-            "http://www.w3.org/2001/XMLSchema#int");
+            "http://www.w3.org/2001/XMLSchema#int", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#integer</tt>
      */
     public static final Types XSD_INTEGER = new Types(
-            "http://www.w3.org/2001/XMLSchema#integer");
+            "http://www.w3.org/2001/XMLSchema#integer", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#language</tt>
@@ -181,7 +205,7 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#long</tt>
      */
     public static final Types XSD_LONG = new Types(
-            "http://www.w3.org/2001/XMLSchema#long");
+            "http://www.w3.org/2001/XMLSchema#long", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#Name</tt>
@@ -199,7 +223,7 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#negativeInteger</tt>
      */
     public static final Types XSD_NEGATIVEINTEGER = new Types(
-            "http://www.w3.org/2001/XMLSchema#negativeInteger");
+            "http://www.w3.org/2001/XMLSchema#negativeInteger", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#NMTOKEN</tt>
@@ -211,13 +235,13 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#nonNegativeInteger</tt>
      */
     public static final Types XSD_NONNEGATIVEINTEGER = new Types(
-            "http://www.w3.org/2001/XMLSchema#nonNegativeInteger");
+            "http://www.w3.org/2001/XMLSchema#nonNegativeInteger", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#nonPositiveInteger</tt>
      */
     public static final Types XSD_NONPOSITIVEINTEGER = new Types(
-            "http://www.w3.org/2001/XMLSchema#nonPositiveInteger");
+            "http://www.w3.org/2001/XMLSchema#nonPositiveInteger", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#normalizedString</tt>
@@ -229,13 +253,13 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#positiveInteger</tt>
      */
     public static final Types XSD_POSITIVEINTEGER = new Types(
-            "http://www.w3.org/2001/XMLSchema#positiveInteger");
+            "http://www.w3.org/2001/XMLSchema#positiveInteger", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#short</tt>
      */
     public static final Types XSD_SHORT = new Types(
-            "http://www.w3.org/2001/XMLSchema#short");
+            "http://www.w3.org/2001/XMLSchema#short", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#string</tt>
@@ -247,7 +271,7 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#time</tt>
      */
     public static final Types XSD_TIME = new Types(
-            "http://www.w3.org/2001/XMLSchema#time");
+            "http://www.w3.org/2001/XMLSchema#time", Types::parseTime);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#token</tt>
@@ -259,25 +283,25 @@ public final class Types extends RDFImpl implements IRI {
      * <tt>http://www.w3.org/2001/XMLSchema#unsignedByte</tt>
      */
     public static final Types XSD_UNSIGNEDBYTE = new Types(
-            "http://www.w3.org/2001/XMLSchema#unsignedByte");
+            "http://www.w3.org/2001/XMLSchema#unsignedByte", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#unsignedInt</tt>
      */
     public static final Types XSD_UNSIGNEDINT = new Types(
-            "http://www.w3.org/2001/XMLSchema#unsignedInt");
+            "http://www.w3.org/2001/XMLSchema#unsignedInt", Long::valueOf);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#unsignedLong</tt>
      */
     public static final Types XSD_UNSIGNEDLONG = new Types(
-            "http://www.w3.org/2001/XMLSchema#unsignedLong");
+            "http://www.w3.org/2001/XMLSchema#unsignedLong", BigInteger::new);
 
     /**
      * <tt>http://www.w3.org/2001/XMLSchema#unsignedShort</tt>
      */
     public static final Types XSD_UNSIGNEDSHORT = new Types(
-            "http://www.w3.org/2001/XMLSchema#unsignedShort");
+            "http://www.w3.org/2001/XMLSchema#unsignedShort", Long::valueOf);
 
     private static final Set<IRI> ALL_TYPES;
 
@@ -327,11 +351,49 @@ public final class Types extends RDFImpl implements IRI {
         ALL_TYPES = Collections.unmodifiableSet(tempTypes);
     }
 
-    private final IRI field;
+    private final IRIImpl field;
+    private final Function<String, ?> parser;
 
     private Types(String field) {
-        super(new SimpleRDFTermFactory());
+        this(field, null);
+    }
+
+    private Types(String field, Function<String, ?> parser) {
+        super(CONTEXT);
         this.field = new IRIImpl(getContext(),field);
+        this.parser = parser;
+        if (REGISTRY.putIfAbsent(field, this) != null) {
+            throw new IllegalArgumentException("Datatype already registered: "
+                    + field);
+        }
+    }
+
+    /**
+     * Register a custom datatype.
+     *
+     * @param iri    The IRI string of the datatype
+     * @param parser Parses lexical forms of the datatype to values, throwing
+     *               {@link IllegalArgumentException} for invalid ones, or null
+     *               to leave values as lexical forms
+     * @return The canonical instance of the datatype
+     * @throws IllegalArgumentException If the IRI is invalid or a datatype is
+     *                                  already registered with it
+     */
+    public static Types register(String iri, Function<String, ?> parser) {
+        return new Types(iri, parser);
+    }
+
+    /**
+     * Parse a lexical form of this datatype to its value.
+     *
+     * @param lexicalForm The lexical form to parse
+     * @return The value, or the lexical form itself if the datatype has no
+     * parser
+     * @throws IllegalArgumentException If the lexical form is invalid for the
+     *                                  datatype
+     */
+    public Object parse(String lexicalForm) {
+        return parser == null ? lexicalForm : parser.apply(lexicalForm);
     }
 
     @Override
@@ -344,6 +406,11 @@ public final class Types extends RDFImpl implements IRI {
         return this.field.ntriplesString();
     }
 
+    @Override
+    public void appendTo(Appendable out) throws IOException {
+        this.field.appendTo(out);
+    }
+
     @Override
     public boolean equals(Object other) {
         return this.field.equals(other);
@@ -354,6 +421,11 @@ public final class Types extends RDFImpl implements IRI {
         return this.field.hashCode();
     }
 
+    @Override
+    public long fingerprint() {
+        return this.field.fingerprint();
+    }
+
     @Override
     public String toString() {
         return this.field.toString();
@@ -378,15 +450,85 @@ public final class Types extends RDFImpl implements IRI {
      * {@link Optional#empty()} if it is not present here.
      */
     public static Optional<IRI> get(IRI nextIRI) {
-        if (ALL_TYPES.contains(nextIRI)) {
-            // If we know about this IRI, then look through our set to find the
-            // object that matches and return it
-            for (IRI nextType : ALL_TYPES) {
-                if (nextType.equals(nextIRI)) {
-                    return Optional.of(nextType);
+        return Optional.ofNullable(lookup(nextIRI.getIRIString()));
+    }
+
+    /**
+     * Get the registered datatype with the given IRI string.
+     *
+     * @return The datatype, or null if none is registered
+     */
+    static Types lookup(String iri) {
+        return REGISTRY.get(iri);
+    }
+
+    /**
+     * Get the registered datatype equal to an IRI, without allocating.
+     *
+     * @return The datatype, or the IRI itself if none is registered
+     */
+    static IRI canonical(IRI iri) {
+        if (iri instanceof Types) {
+            return iri;
+        }
+        Types type = REGISTRY.get(iri.getIRIString());
+        return type == null ? iri : type;
+    }
+
+    private static Float parseFloat(String lexicalForm) {
+        return parseDouble(lexicalForm).floatValue();
+    }
+
+    private static Double parseDouble(String lexicalForm) {
+        switch (lexicalForm) {
+            case "INF":
+            case "+INF":
+                return Double.POSITIVE_INFINITY;
+            case "-INF":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                // XSD only spells infinity as INF
+                if (lexicalForm.contains("Infinity")) {
+                    throw new NumberFormatException("Invalid double: "
+                            + lexicalForm);
                 }
-            }
+                return Double.valueOf(lexicalForm);
+        }
+    }
+
+    private static Temporal parseDateTime(String lexicalForm) {
+        return hasTimeZone(lexicalForm) ? OffsetDateTime.parse(lexicalForm)
+                : LocalDateTime.parse(lexicalForm);
+    }
+
+    private static Temporal parseTime(String lexicalForm) {
+        return hasTimeZone(lexicalForm) ? OffsetTime.parse(lexicalForm)
+                : LocalTime.parse(lexicalForm);
+    }
+
+    /**
+     * Check if a lexical form ends with a time zone, i.e. <code>Z</code> or
+     * an offset like <code>+01:00</code>.
+     */
+    private static boolean hasTimeZone(String lexicalForm) {
+        int n = lexicalForm.length();
+        return n > 0 && lexicalForm.charAt(n - 1) == 'Z'
+                || n > 6 && lexicalForm.charAt(n - 3) == ':'
+                && (lexicalForm.charAt(n - 6) == '+'
+                || lexicalForm.charAt(n - 6) == '-');
+    }
+
+    private static Boolean parseBoolean(String lexicalForm) {
+        switch (lexicalForm) {
+            case "true":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException("Invalid boolean: "
+                        + lexicalForm);
         }
-        return Optional.empty();
     }
 }
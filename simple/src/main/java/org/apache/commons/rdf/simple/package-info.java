@@ -25,7 +25,9 @@
  * Note that although this module fully implements the commons-rdf API,
  * it should <strong>not</strong>  be considered a reference implementation.
  * It is <strong>not thread-safe</strong> nor scalable, but may be useful for
- * testing and simple usage (e.g. prototyping).
+ * testing and simple usage (e.g. prototyping). Graphs that are shared between
+ * threads can be created with
+ * {@link org.apache.commons.rdf.simple.ConcurrentRDFTermFactory} instead.
  * <p>
  * To use this implementation, create an instance of
  * {@link org.apache.commons.rdf.simple.SimpleRDFTermFactory}
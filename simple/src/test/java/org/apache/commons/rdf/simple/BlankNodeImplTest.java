@@ -17,11 +17,22 @@
  */
 package org.apache.commons.rdf.simple;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.rdf.api.AbstractBlankNodeTest;
 import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.RDFContext;
+import org.junit.Test;
 
 /**
  * Concrete implementation of BlankNodeImpl test.
@@ -48,4 +59,49 @@ public class BlankNodeImplTest extends AbstractBlankNodeTest {
         return new BlankNodeImpl(context,SALT, identifier);
     }
 
+    @Test
+    public void anonymousReference() throws Exception {
+        BlankNode first = new BlankNodeImpl(context);
+        BlankNode second = new BlankNodeImpl(context);
+        assertNotEquals(first, second);
+        String reference = first.uniqueReference();
+        assertEquals(reference, UUID.fromString(reference).toString());
+        assertNotEquals(reference, second.uniqueReference());
+
+        BlankNode copy = BlankNodeImpl.fromReference(context, reference);
+        assertEquals(first, copy);
+        assertEquals(copy, first);
+        assertEquals(first.hashCode(), copy.hashCode());
+        assertNotEquals(second, copy);
+        assertNotEquals(first, BlankNodeImpl.fromReference(context,
+                reference.toUpperCase()));
+    }
+
+    @Test
+    public void anonymousAcrossThreads() throws Exception {
+        int threads = 4;
+        int perThread = 5000;
+        Set<String> references = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        BlankNode node = new BlankNodeImpl(context);
+                        references.add(node.uniqueReference());
+                        assertEquals(node, BlankNodeImpl.fromReference(context,
+                                node.uniqueReference()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * perThread, references.size());
+    }
+
 }
@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.junit.Test;
+
+/**
+ * Test ConcurrentRDFTermFactory with AbstractGraphTest
+ */
+public class ConcurrentGraphTest extends AbstractGraphTest {
+
+    @Override
+    public RDFContext createFactory() {
+        return new ConcurrentRDFTermFactory();
+    }
+
+    @Test
+    public void concurrentReadersAndWriters() throws Exception {
+        RDFContext factory = createFactory();
+        Graph graph = factory.createGraph();
+        IRI p = factory.createIRI("http://example.com/p");
+        int threads = 8;
+        int perThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        IRI s = factory.createIRI("http://example.com/s" + (i % 50));
+                        RDFTerm o = factory.createLiteral(thread + "-" + i);
+                        graph.add(s, p, o);
+                        if (i % 10 == 0) {
+                            // Readers stream over all shards while others write
+                            graph.getTriples(null, p, null).count();
+                            graph.getTriples(s, null, null).count();
+                            graph.contains(null, null, o);
+                        }
+                        if (i % 2 == 1) {
+                            graph.remove(s, p, o);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                // Rethrows any exception of the task
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+        assertEquals(threads * perThread / 2, graph.size());
+        assertEquals(graph.size(), graph.getTriples().count());
+    }
+
+    @Test
+    public void streamPolicy() throws Exception {
+        RDFContext factory = factory(StreamPolicy.SEQUENTIAL);
+        IRI p = factory.createIRI("http://example.com/p");
+        Graph sequential = new ConcurrentGraphImpl(factory);
+        Graph small = new ConcurrentGraphImpl(factory(new StreamPolicy(100)));
+        for (int i = 0; i < 50; i++) {
+            IRI s = factory.createIRI("http://example.com/s" + i);
+            sequential.add(s, p, s);
+            small.add(s, p, s);
+        }
+        assertFalse(sequential.getTriples(null, p, null).isParallel());
+        // Below the threshold
+        assertFalse(small.getTriples(null, p, null).isParallel());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Graph pooled = new ConcurrentGraphImpl(
+                    factory(new StreamPolicy(0, pool)));
+            sequential.getTriples().forEach(pooled::add);
+            assertTrue(pooled.getTriples(null, p, null).isParallel());
+            Set<ForkJoinPool> pools = pooled.getTriples(null, p, null)
+                    .map(t -> ForkJoinTask.getPool())
+                    .collect(Collectors.toSet());
+            assertEquals(1, pools.size());
+            assertSame(pool, pools.iterator().next());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static RDFContext factory(StreamPolicy policy) {
+        return new SimpleRDFTermFactory(0, IRIValidator.STRICT, policy);
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.junit.Test;
+
+/**
+ * Test DictionaryRDFTermFactory with AbstractGraphTest
+ */
+public class DictionaryGraphTest extends AbstractGraphTest {
+
+    @Override
+    public RDFContext createFactory() {
+        return new DictionaryRDFTermFactory();
+    }
+
+    @Test
+    public void addAndRemoveMany() throws Exception {
+        RDFContext factory = createFactory();
+        Graph graph = factory.createGraph();
+        IRI subject = factory.createIRI("http://example.com/s");
+        IRI even = factory.createIRI("http://example.com/even");
+        IRI odd = factory.createIRI("http://example.com/odd");
+        for (int i = 0; i < 10000; i++) {
+            graph.add(subject, i % 2 == 0 ? even : odd, factory.createLiteral(i));
+            // duplicates are ignored
+            graph.add(subject, i % 2 == 0 ? even : odd, factory.createLiteral(i));
+        }
+        assertEquals(10000, graph.size());
+        assertEquals(5000, graph.getTriples(null, odd, null).count());
+
+        graph.remove(null, odd, null);
+        assertEquals(5000, graph.size());
+        assertFalse(graph.contains(subject, odd, (RDFTerm) null));
+        for (int i = 0; i < 10000; i += 2) {
+            assertTrue(graph.contains(subject, even, factory.createLiteral(i)));
+        }
+        graph.remove(subject, even, factory.createLiteral(42));
+        assertFalse(graph.contains(subject, even, factory.createLiteral(42)));
+        assertEquals(4999, graph.getTriples().count());
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test writing and memory-mapping graph files with GraphFiles
+ */
+public class GraphFilesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final RDFContext factory = new SimpleRDFTermFactory();
+
+    @Test
+    public void roundtrip() throws Exception {
+        List<BlankNodeOrIRI> subjects = Arrays.asList(
+                factory.createIRI("http://example.com/s1"),
+                factory.createIRI("http://example.испытание/s2"),
+                factory.createBlankNode("b1"));
+        List<IRI> predicates = Arrays.asList(
+                factory.createIRI("http://example.com/p1"),
+                factory.createIRI("http://example.com/p2"));
+        List<RDFTerm> objects = Arrays.asList(
+                factory.createIRI("http://example.com/s1"),
+                factory.createBlankNode("b1"),
+                factory.createLiteral("o1"),
+                factory.createLiteral("o2\n\"𐐀\"", "en-GB"),
+                factory.createLiteral(42));
+        Graph graph = factory.createGraph();
+        for (BlankNodeOrIRI s : subjects) {
+            for (IRI p : predicates) {
+                for (RDFTerm o : objects) {
+                    if ((s.hashCode() ^ p.hashCode() ^ o.hashCode()) % 3 != 0) {
+                        graph.add(s, p, o);
+                    }
+                }
+            }
+        }
+        Path file = folder.newFile("graph.bin").toPath();
+        GraphFiles.write(graph, file);
+        Set<Triple> all = graph.getTriples().collect(Collectors.toSet());
+
+        try (Graph mapped = GraphFiles.open(file, factory)) {
+            assertEquals(graph.size(), mapped.size());
+            assertEquals(all, mapped.getTriples().collect(Collectors.toSet()));
+            for (BlankNodeOrIRI s : Arrays.asList(null, subjects.get(0), subjects.get(2))) {
+                for (IRI p : Arrays.asList(null, predicates.get(1))) {
+                    for (RDFTerm o : Arrays.asList(null, objects.get(1), objects.get(3))) {
+                        Set<Triple> expected = graph.getTriples(s, p, o)
+                                .collect(Collectors.toSet());
+                        assertEquals(expected, mapped.getTriples(s, p, o)
+                                .collect(Collectors.toSet()));
+                        assertEquals(!expected.isEmpty(), mapped.contains(s, p, o));
+                        assertEquals(expected.size(), mapped.count(s, p, o));
+                    }
+                }
+            }
+            for (Triple triple : all) {
+                assertTrue(mapped.contains(triple));
+            }
+            IRI unknown = factory.createIRI("http://example.com/unknown");
+            assertFalse(mapped.contains(unknown, null, (RDFTerm) null));
+            assertEquals(0, mapped.getTriples(null, unknown, null).count());
+            try {
+                mapped.add(subjects.get(0), predicates.get(0), unknown);
+                fail("Graph file should be read-only");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        }
+
+        GraphFiles.write(factory.createGraph(), file);
+        try (Graph empty = GraphFiles.open(file)) {
+            assertEquals(0, empty.size());
+            assertFalse(empty.contains(null, null, (RDFTerm) null));
+        }
+    }
+
+    @Test
+    public void useAfterClose() throws Exception {
+        IRI s = factory.createIRI("http://example.com/s");
+        IRI p = factory.createIRI("http://example.com/p");
+        Graph graph = factory.createGraph();
+        for (int i = 0; i < 10; i++) {
+            graph.add(s, p, factory.createLiteral(i));
+        }
+        Path file = folder.newFile("graph.bin").toPath();
+        GraphFiles.write(graph, file);
+
+        Graph mapped = GraphFiles.open(file, factory);
+        Triple triple = mapped.getTriples().findAny().get();
+        Stream<? extends Triple> open = mapped.getTriples();
+        mapped.close();
+        mapped.close(); // no-op
+        List<Runnable> uses = Arrays.asList(
+                () -> mapped.contains(s, null, (RDFTerm) null),
+                () -> mapped.contains(triple),
+                () -> mapped.getTriples(),
+                () -> mapped.getTriples(null, p, null),
+                () -> mapped.count(s, p, null),
+                () -> mapped.size(),
+                () -> open.findAny());
+        for (Runnable use : uses) {
+            try {
+                use.run();
+                fail("Closed graph file should not be readable");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void truncatedGraphFile() throws Exception {
+        Graph graph = factory.createGraph();
+        IRI s = factory.createIRI("http://example.com/s");
+        graph.add(s, s, factory.createLiteral("o"));
+        Path file = folder.newFile("graph.bin").toPath();
+        GraphFiles.write(graph, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 12));
+        GraphFiles.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void notAGraphFile() throws Exception {
+        Path file = folder.newFile("graph.nt").toPath();
+        Files.write(file, ("<http://example.com/s> <http://example.com/p> "
+                + "<http://example.com/o> .\n").getBytes(StandardCharsets.UTF_8));
+        GraphFiles.open(file);
+    }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.commons.rdf.api.RDFContext;
+import org.junit.Test;
+
+/**
+ * Test IRIValidator
+ */
+public class IRIValidatorTest {
+
+    @Test
+    public void strict() throws Exception {
+        for (String iri : new String[] { "", "http://example.com/",
+                "http://example.com/a/b?q=1&r#frag", "urn:isbn:0451450523",
+                "mailto:alice@example.com", "../relative#term", "#frag",
+                "?query", "//example.com", "http://user:pw@example.com:8080/",
+                "http://[::1]/", "http://[v7.a:b]/", "http://example.com/%C3%A9",
+                "http://example.испытание/Кириллица", "http://𐐀.example.com/𐐀",
+                "http://example.com/?" }) {
+            assertTrue(iri, IRIValidator.STRICT.isValid(iri));
+        }
+        for (String iri : new String[] { "<no_brackets>", "http://example.com/a b",
+                "1http:foo", "a:b:c/d\"", "rel:ative/../x y", ":foo",
+                "foo:bar#a#b", "http://example.com/%G1", "http://example.com/%4",
+                "http://example.com:80a/", "http://[::1/", "http://a@b@c/",
+                "http://example.com/#", "http://example.com/\uD800",
+                "http://example.com/{x}", "http://example.com/\\" }) {
+            assertFalse(iri, IRIValidator.STRICT.isValid(iri));
+        }
+    }
+
+    @Test
+    public void modes() throws Exception {
+        assertTrue(IRIValidator.LENIENT.isValid(":foo"));
+        assertFalse(IRIValidator.LENIENT.isValid("<no_brackets>"));
+        assertTrue(IRIValidator.TRUSTED.isValid("<no_brackets>"));
+
+        RDFContext trusted = new SimpleRDFTermFactory(0, IRIValidator.TRUSTED);
+        assertEquals("not an IRI", trusted.createIRI("not an IRI").getIRIString());
+        try {
+            new SimpleRDFTermFactory(0, IRIValidator.LENIENT).createIRI("a b");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test IndexedRDFTermFactory with AbstractGraphTest
+ */
+public class IndexedGraphTest extends AbstractGraphTest {
+
+    @Override
+    public RDFContext createFactory() {
+        return new IndexedRDFTermFactory();
+    }
+
+    @Test
+    public void allPatternShapes() throws Exception {
+        RDFContext factory = createFactory();
+        Graph graph = factory.createGraph();
+        List<BlankNodeOrIRI> subjects = Arrays.asList(
+                factory.createIRI("http://example.com/s1"),
+                factory.createIRI("http://example.com/s2"),
+                factory.createBlankNode("b1"));
+        List<IRI> predicates = Arrays.asList(
+                factory.createIRI("http://example.com/p1"),
+                factory.createIRI("http://example.com/p2"));
+        List<RDFTerm> objects = Arrays.asList(
+                factory.createIRI("http://example.com/s1"),
+                factory.createLiteral("o1"),
+                factory.createLiteral("o2", "en"));
+        for (BlankNodeOrIRI s : subjects) {
+            for (IRI p : predicates) {
+                for (RDFTerm o : objects) {
+                    if ((s.hashCode() ^ p.hashCode() ^ o.hashCode()) % 3 != 0) {
+                        graph.add(s, p, o);
+                    }
+                }
+            }
+        }
+        Set<Triple> all = graph.getTriples().collect(Collectors.toSet());
+        assertEquals(all.size(), graph.size());
+
+        for (BlankNodeOrIRI s : Arrays.asList(null, subjects.get(0), subjects.get(2))) {
+            for (IRI p : Arrays.asList(null, predicates.get(1))) {
+                for (RDFTerm o : Arrays.asList(null, objects.get(0), objects.get(2))) {
+                    Set<Triple> expected = all.stream()
+                            .filter(t -> s == null || t.getSubject().equals(s))
+                            .filter(t -> p == null || t.getPredicate().equals(p))
+                            .filter(t -> o == null || t.getObject().equals(o))
+                            .collect(Collectors.toSet());
+                    assertEquals(expected, graph.getTriples(s, p, o)
+                            .collect(Collectors.toSet()));
+                    assertEquals(!expected.isEmpty(), graph.contains(s, p, o));
+                }
+            }
+        }
+
+        graph.remove(null, predicates.get(1), null);
+        assertFalse(graph.contains(null, predicates.get(1), (RDFTerm) null));
+        assertTrue(graph.getTriples().allMatch(graph::contains));
+        assertEquals(all.stream()
+                .filter(t -> !t.getPredicate().equals(predicates.get(1)))
+                .count(), graph.size());
+    }
+
+    @Test
+    public void spliteratorSharesOutLargeSubjects() throws Exception {
+        RDFContext factory = createFactory();
+        TripleIndex index = new TripleIndex();
+        IRI big = factory.createIRI("http://example.com/big");
+        for (int i = 0; i < 5000; i++) {
+            index.add(factory.createTriple(big,
+                    factory.createIRI("http://example.com/p" + i % 50),
+                    factory.createLiteral(Integer.toString(i))));
+        }
+        IRI p = factory.createIRI("http://example.com/p");
+        for (int i = 0; i < 5000; i++) {
+            index.add(factory.createTriple(
+                    factory.createIRI("http://example.com/s" + i / 5), p,
+                    factory.createLiteral(Integer.toString(i))));
+        }
+        // Empty the first subjects, moving later ones into their places
+        for (int i = 0; i < 1000; i++) {
+            index.remove(factory.createTriple(
+                    factory.createIRI("http://example.com/s" + i / 5), p,
+                    factory.createLiteral(Integer.toString(i))));
+        }
+        index.add(factory.createTriple(factory.createIRI("http://example.com/s0"),
+                p, factory.createLiteral("again")));
+        Spliterator<Triple> spliterator = index.spliterator();
+        assertEquals(9001, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(
+                Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        // The big subject is about half of the triples
+        Spliterator<Triple> half = spliterator.trySplit();
+        assertTrue(Math.abs(half.estimateSize() - spliterator.estimateSize())
+                <= 5000);
+        List<Long> parts = new ArrayList<>();
+        Set<Triple> seen = new HashSet<>();
+        split(half, seen, parts);
+        split(spliterator, seen, parts);
+        // Each triple once
+        assertEquals(9001, seen.size());
+        assertEquals(9001, parts.stream().mapToLong(Long::longValue).sum());
+        // The subject with half the triples did not stay in one part
+        assertTrue(parts.stream().allMatch(n -> n <= 100));
+        assertEquals(9001, index.match(null, null, null).count());
+
+        Graph graph = factory.createGraph();
+        index.match(null, null, null).forEach(graph::add);
+        assertEquals(9001, graph.getTriples().count());
+        assertEquals(9001, graph.getTriples().parallel().distinct().count());
+    }
+
+    private static void split(Spliterator<Triple> spliterator, Set<Triple> seen,
+                              List<Long> parts) {
+        long size = spliterator.estimateSize();
+        Spliterator<Triple> prefix = spliterator.trySplit();
+        if (prefix != null) {
+            // Sizes stay exact
+            assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+            split(prefix, seen, parts);
+            split(spliterator, seen, parts);
+            return;
+        }
+        List<Triple> part = new ArrayList<>();
+        spliterator.tryAdvance(part::add);
+        spliterator.forEachRemaining(part::add);
+        assertEquals(size, part.size());
+        seen.addAll(part);
+        parts.add((long) part.size());
+    }
+
+}
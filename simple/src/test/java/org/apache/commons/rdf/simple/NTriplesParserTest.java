@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test NTriplesParser
+ */
+public class NTriplesParserTest {
+
+    private final RDFContext factory = new SimpleRDFTermFactory();
+    private final NTriplesParser parser = new NTriplesParser(factory);
+
+    private static InputStream document(String ntriples) {
+        return new ByteArrayInputStream(ntriples.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void parseTerms() throws Exception {
+        Graph graph = factory.createGraph();
+        parser.parse(document("# a comment\n"
+                + "\n"
+                + "<http://example.com/s> <http://example.com/p> <http://example.com/o> .\r\n"
+                + "  <http://example.com/s>\t<http://example.com/p> \"plain\" . # trailing\n"
+                + "<http://example.com/s> <http://example.com/p> \"esc\\t\\\"\\u00E9\\U0001F600\\\\\" .\n"
+                + "<http://example.com/s> <http://example.com/p> \"Grüße\"@de-AT .\n"
+                + "<http://example.com/s> <http://example.com/p> \"42\"^^<http://www.w3.org/2001/XMLSchema#int> .\n"
+                + "<http://example.com/\\u00E9> <http://example.com/p> _:b1.\n"
+                + "_:b1 <http://example.com/p> _:b.2 ."), graph);
+        IRI s = factory.createIRI("http://example.com/s");
+        IRI p = factory.createIRI("http://example.com/p");
+        assertEquals(7, graph.size());
+        assertTrue(graph.contains(s, p, factory.createIRI("http://example.com/o")));
+        assertTrue(graph.contains(s, p, factory.createLiteral("plain")));
+        assertTrue(graph.contains(s, p, factory.createLiteral("esc\t\"é😀\\")));
+        assertTrue(graph.contains(s, p, factory.createLiteral("Grüße", "de-at")));
+        assertTrue(graph.contains(s, p, factory.createLiteral("42", Types.XSD_INT)));
+        IRI e = factory.createIRI("http://example.com/é");
+        BlankNode b1 = (BlankNode) graph.getTriples(e, p, null).findAny().get().getObject();
+        BlankNode b2 = (BlankNode) graph.getTriples(b1, p, null).findAny().get().getObject();
+        assertNotEquals(b1, b2);
+    }
+
+    @Test
+    public void blankNodesPerDocument() throws Exception {
+        String ntriples = "_:b <http://example.com/p> _:b .\n";
+        List<Triple> first = parser.stream(document(ntriples)).collect(Collectors.toList());
+        List<Triple> second = parser.stream(document(ntriples)).collect(Collectors.toList());
+        assertEquals(first.get(0).getSubject(), first.get(0).getObject());
+        assertNotEquals(first.get(0).getSubject(), second.get(0).getSubject());
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+        Graph graph = factory.createGraph();
+        IRI s = factory.createIRI("http://example.com/s");
+        for (int i = 0; i < 20000; i++) {
+            IRI p = factory.createIRI("http://example.com/p" + i);
+            graph.add(s, p, factory.createLiteral("Example \"" + i + "\"\r\n"));
+            graph.add(s, p, factory.createLiteral("Ëxample " + i, "en"));
+            graph.add(s, p, factory.createLiteral(Integer.toString(i), Types.XSD_INTEGER));
+            graph.add(s, p, factory.createIRI("http://example.com/o" + i));
+        }
+        // Larger than the parser's buffer, so terms cross buffer boundaries
+        Path file = Files.createTempFile("graph", ".nt");
+        file.toFile().deleteOnExit();
+        Files.write(file, graph.getTriples().map(TestWritingGraph::tripleAsString)
+                .collect(Collectors.toList()), StandardCharsets.UTF_8);
+        Set<Triple> parsed;
+        try (Stream<Triple> triples = parser.stream(file)) {
+            parsed = triples.collect(Collectors.toSet());
+        }
+        assertEquals(graph.getTriples().collect(Collectors.toSet()), parsed);
+    }
+
+    @Test
+    public void parallelParse() throws Exception {
+        StringBuilder ntriples = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            ntriples.append("_:b").append(i % 100)
+                    .append(" <http://example.com/p> \"Ëxample ").append(i)
+                    .append("\"@en .\n");
+            ntriples.append("<http://example.com/s").append(i)
+                    .append("> <http://example.com/p> _:b").append(i % 100)
+                    .append(" .\r\n");
+        }
+        Path file = Files.createTempFile("graph", ".nt");
+        file.toFile().deleteOnExit();
+        Files.write(file, ntriples.toString().getBytes(StandardCharsets.UTF_8));
+
+        Graph expected = factory.createGraph();
+        parser.parse(file, expected);
+        Graph graph = factory.createGraph();
+        parser.parallelParse(file, graph, ForkJoinPool.commonPool(), 1000);
+        assertEquals(expected.size(), graph.size());
+        // Labels are shared across chunks
+        assertEquals(100, graph.getTriples()
+                .map(Triple::getSubject).filter(s -> s instanceof BlankNode)
+                .distinct().count());
+        assertEquals(100, graph.getTriples()
+                .map(Triple::getObject).filter(o -> o instanceof BlankNode)
+                .distinct().count());
+
+        Files.write(file, (ntriples + "<http://example.com/s> oops .\n")
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            parser.parallelParse(file, factory.createGraph(),
+                    ForkJoinPool.commonPool(), 1000);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 10001:"));
+        }
+    }
+
+    @Test
+    public void parallelParseKeepsNestedExceptions() throws Exception {
+        // An IOException nested deeper than ForkJoinPool wraps it is not the
+        // failure of the parse
+        RDFContext failing = new SimpleRDFTermFactory() {
+            @Override
+            public IRI createIRI(String iri) {
+                if (iri.equals("http://example.com/bad")) {
+                    throw new IllegalStateException("Rejected", new UncheckedIOException(
+                            new IOException("Nested")));
+                }
+                return super.createIRI(iri);
+            }
+        };
+        StringBuilder ntriples = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            ntriples.append("<http://example.com/s").append(i)
+                    .append("> <http://example.com/p> \"o\" .\n");
+        }
+        ntriples.append("<http://example.com/bad> <http://example.com/p> \"o\" .\n");
+        Path file = Files.createTempFile("graph", ".nt");
+        file.toFile().deleteOnExit();
+        Files.write(file, ntriples.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            new NTriplesParser(failing).parallelParse(file,
+                    failing.createGraph(), ForkJoinPool.commonPool(), 1000);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Rejected"));
+        }
+    }
+
+    @Test
+    public void errorLineNumber() throws Exception {
+        try {
+            parser.parse(document("<http://example.com/s> <http://example.com/p> \"o\" .\n"
+                    + "<http://example.com/s> <http://example.com/p> \"o\" \n"), t -> {
+            });
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2:"));
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test NTriplesWriter
+ */
+public class NTriplesWriterTest {
+
+    private final RDFContext factory = new SimpleRDFTermFactory();
+
+    @Test
+    public void sameAsNtriplesString() throws Exception {
+        IRI s = factory.createIRI("http://example.com/Grüße");
+        IRI p = factory.createIRI("http://example.com/p");
+        BlankNode b = factory.createBlankNode("b");
+        List<RDFTerm> objects = Arrays.asList(
+                factory.createIRI("http://𐐀.example.com/"),
+                b,
+                factory.createLiteral(""),
+                factory.createLiteral("\"quoted\"\r\n\\ and \t tab"),
+                factory.createLiteral("ß 😀 \ud800", "en-GB"),
+                factory.createLiteral("42", Types.XSD_INT));
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // A tiny buffer, so that chars are split over many writes
+        try (NTriplesWriter writer = new NTriplesWriter(
+                Channels.newChannel(bytes), bytes, 5)) {
+            for (RDFTerm o : objects) {
+                Triple triple = factory.createTriple(s, p, o);
+                writer.write(triple);
+                writer.write(factory.createTriple(b, p, o));
+                expected.append(triple).append('\n');
+                expected.append(factory.createTriple(b, p, o)).append('\n');
+            }
+        }
+        assertEquals(expected.toString().replace('\ud800', '?'),
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void roundtrip() throws Exception {
+        Graph graph = factory.createGraph();
+        IRI s = factory.createIRI("http://example.com/s");
+        for (int i = 0; i < 1000; i++) {
+            IRI p = factory.createIRI("http://example.com/p" + i);
+            graph.add(s, p, factory.createLiteral("Ëxample \\ \"" + i + "\"\n", "en"));
+            graph.add(s, p, factory.createLiteral(Integer.toString(i), Types.XSD_INTEGER));
+            graph.add(factory.createBlankNode("b" + i), p, s);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (NTriplesWriter writer = new NTriplesWriter(bytes)) {
+            writer.write(graph);
+        }
+        Graph parsed = factory.createGraph();
+        new NTriplesParser(factory).parse(
+                new ByteArrayInputStream(bytes.toByteArray()), parsed);
+        assertEquals(graph.size(), parsed.size());
+        Set<Triple> withoutBlankNodes = graph.getTriples(s, null, null)
+                .collect(Collectors.toSet());
+        assertEquals(withoutBlankNodes, parsed.getTriples(s, null, null)
+                .collect(Collectors.toSet()));
+    }
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test OffHeapRDFTermFactory with AbstractGraphTest
+ */
+public class OffHeapGraphTest extends AbstractGraphTest {
+
+    @Override
+    public RDFContext createFactory() {
+        return new OffHeapRDFTermFactory();
+    }
+
+    @Test
+    public void termsRoundtrip() throws Exception {
+        RDFContext factory = createFactory();
+        IRI subject = factory.createIRI("http://example.com/s");
+        BlankNode bnode = factory.createBlankNode();
+        List<RDFTerm> objects = Arrays.asList(
+                factory.createIRI("http://example.испытание/Кириллица"),
+                factory.createIRI("http://𐐀.example.com/𐐀"),
+                bnode,
+                factory.createLiteral(""),
+                factory.createLiteral("plain"),
+                factory.createLiteral("with \"quotes\"\n and é", "fr-BE"),
+                factory.createLiteral(42),
+                factory.createLiteral("x", factory.createIRI("http://example.com/type")));
+        try (Graph graph = factory.createGraph()) {
+            for (int i = 0; i < 1000; i++) {
+                IRI predicate = factory.createIRI("http://example.com/p" + i);
+                for (RDFTerm object : objects) {
+                    graph.add(subject, predicate, object);
+                }
+                graph.add(bnode, predicate, subject);
+            }
+            assertEquals(9000, graph.size());
+            IRI p7 = factory.createIRI("http://example.com/p7");
+            Set<RDFTerm> found = graph.getTriples(subject, p7, null)
+                    .map(Triple::getObject).collect(Collectors.toSet());
+            assertEquals(new HashSet<>(objects), found);
+            for (RDFTerm object : objects) {
+                assertTrue(graph.contains(subject, p7, object));
+            }
+            assertEquals(1000, graph.getTriples(bnode, null, null).count());
+        }
+    }
+
+    @Test
+    public void unpairedSurrogates() throws Exception {
+        RDFContext factory = createFactory();
+        IRI subject = factory.createIRI("http://example.com/s");
+        IRI predicate = factory.createIRI("http://example.com/p");
+        List<RDFTerm> objects = Arrays.asList(
+                factory.createLiteral("a?"),
+                factory.createLiteral("a\uD800"),
+                factory.createLiteral("\uDC00a"),
+                factory.createLiteral("\uDC00\uD800"),
+                factory.createLiteral("\uD801\uDC00"));
+        try (Graph graph = factory.createGraph()) {
+            for (RDFTerm object : objects) {
+                graph.add(subject, predicate, object);
+            }
+            assertEquals(5, graph.size());
+            Set<RDFTerm> found = graph.getTriples(subject, predicate, null)
+                    .map(Triple::getObject).collect(Collectors.toSet());
+            assertEquals(new HashSet<>(objects), found);
+            for (RDFTerm object : objects) {
+                assertTrue(graph.contains(subject, predicate, object));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentReaders() throws Exception {
+        RDFContext factory = createFactory();
+        IRI subject = factory.createIRI("http://example.com/s");
+        IRI predicate = factory.createIRI("http://example.com/p");
+        int terms = 500;
+        try (Graph graph = factory.createGraph()) {
+            for (int i = 0; i < terms; i++) {
+                graph.add(subject, predicate, factory.createLiteral(text(i)));
+            }
+            int threads = 4;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int thread = t;
+                    futures.add(executor.submit(() -> {
+                        // Terms of other lengths than the other threads look up
+                        for (int round = 0; round < 20; round++) {
+                            for (int i = thread; i < terms; i += threads) {
+                                assertTrue(graph.contains(subject, predicate,
+                                        factory.createLiteral(text(i))));
+                                assertFalse(graph.contains(subject, predicate,
+                                        factory.createLiteral(text(i) + "!")));
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    // Rethrows any exception of the task
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+                assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            }
+        }
+    }
+
+    private static String text(int i) {
+        StringBuilder text = new StringBuilder();
+        for (int j = 0; j <= i % 40; j++) {
+            text.append(i);
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test PersistentTripleSet, including triples with colliding hashes
+ */
+public class PersistentTripleSetTest {
+
+    private final RDFContext factory = new SimpleRDFTermFactory();
+
+    /**
+     * A triple with a chosen hash code, to force collisions in the trie.
+     */
+    private static final class HashedTriple implements Triple {
+        private final Triple triple;
+        private final int hash;
+
+        HashedTriple(RDFContext factory, IRI iri, int hash) {
+            this.triple = factory.createTriple(iri, iri, iri);
+            this.hash = hash;
+        }
+
+        @Override
+        public RDFContext getContext() {
+            return triple.getContext();
+        }
+
+        @Override
+        public BlankNodeOrIRI getSubject() {
+            return triple.getSubject();
+        }
+
+        @Override
+        public IRI getPredicate() {
+            return triple.getPredicate();
+        }
+
+        @Override
+        public RDFTerm getObject() {
+            return triple.getObject();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof HashedTriple
+                    && triple.equals(((HashedTriple) obj).triple);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    @Test
+    public void matchesHashSet() throws Exception {
+        Random random = new Random(42);
+        List<Triple> triples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            IRI iri = factory.createIRI("http://example.com/" + i);
+            // Few distinct hashes, sharing long prefixes of bits
+            int hash = i % 3 == 0 ? i & 0xF0F : i % 3 == 1 ? 7 : iri.hashCode();
+            triples.add(new HashedTriple(factory, iri, hash));
+        }
+        Set<Triple> expected = new HashSet<>();
+        PersistentTripleSet set = PersistentTripleSet.EMPTY;
+        for (int i = 0; i < 20000; i++) {
+            Triple triple = triples.get(random.nextInt(triples.size()));
+            PersistentTripleSet before = set;
+            if (random.nextInt(3) == 0) {
+                set = set.minus(triple);
+                assertEquals(expected.remove(triple), set != before);
+            } else {
+                set = set.plus(triple);
+                assertEquals(expected.add(triple), set != before);
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        for (Triple triple : triples) {
+            assertEquals(expected.contains(triple), set.contains(triple));
+        }
+        assertEquals(expected, set.stream().collect(Collectors.toSet()));
+        assertEquals(expected.size(), set.stream().count());
+
+        // Removing everything leaves an empty set
+        for (Triple triple : expected) {
+            set = set.minus(triple);
+        }
+        assertEquals(0, set.size());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void spliteratorSplitsEvenly() throws Exception {
+        PersistentTripleSet set = PersistentTripleSet.EMPTY;
+        IRI predicate = factory.createIRI("http://example.com/p");
+        for (int i = 0; i < 10000; i++) {
+            IRI iri = factory.createIRI("http://example.com/" + i);
+            set = set.plus(i % 100 == 0 ? new HashedTriple(factory, iri, 7)
+                    : factory.createTriple(iri, predicate, iri));
+        }
+        Spliterator<Triple> spliterator = set.stream().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+        Spliterator<Triple> prefix = spliterator.trySplit();
+        assertEquals(10000, prefix.estimateSize() + spliterator.estimateSize());
+        assertTrue(prefix.estimateSize() > 10000 / 4);
+        assertTrue(spliterator.estimateSize() > 10000 / 4);
+
+        Set<Triple> seen = new HashSet<>();
+        split(prefix, seen);
+        split(spliterator, seen);
+        assertEquals(set.stream().collect(Collectors.toSet()), seen);
+        assertEquals(10000, set.stream().parallel().count());
+    }
+
+    /**
+     * Split down to small parts, checking that sizes stay exact.
+     */
+    private static void split(Spliterator<Triple> spliterator, Set<Triple> seen) {
+        long size = spliterator.estimateSize();
+        Spliterator<Triple> prefix = size > 50 ? spliterator.trySplit() : null;
+        if (prefix != null) {
+            assertEquals(size, prefix.estimateSize() + spliterator.estimateSize());
+            split(prefix, seen);
+            split(spliterator, seen);
+            return;
+        }
+        int before = seen.size();
+        // Take the first triple one at a time and the rest in bulk
+        spliterator.tryAdvance(seen::add);
+        assertEquals(size - 1, spliterator.estimateSize());
+        spliterator.forEachRemaining(seen::add);
+        assertEquals(size, seen.size() - before);
+        assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test
+    public void versionsAreUnchanged() throws Exception {
+        IRI iri = factory.createIRI("http://example.com/a");
+        Triple triple = new HashedTriple(factory, iri, 1);
+        PersistentTripleSet empty = PersistentTripleSet.EMPTY;
+        PersistentTripleSet one = empty.plus(triple);
+        assertSame(one, one.plus(triple));
+        assertSame(empty, empty.minus(triple));
+        assertTrue(one.contains(triple));
+        assertFalse(empty.contains(triple));
+        assertEquals(0, empty.size());
+        assertEquals(0, one.minus(triple).size());
+        assertTrue(one.contains(triple));
+    }
+
+}
@@ -0,0 +1,45 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.RDFContext;
+import org.junit.AfterClass;
+
+/**
+ * Test SimpleRDFTermFactory with AbstractGraphTest, running every stream in
+ * parallel in a dedicated pool
+ */
+public class PooledGraphTest extends AbstractGraphTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+    @AfterClass
+    public static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Override
+    public RDFContext createFactory() {
+        return new SimpleRDFTermFactory(0, IRIValidator.STRICT,
+                new StreamPolicy(0, POOL));
+    }
+
+}
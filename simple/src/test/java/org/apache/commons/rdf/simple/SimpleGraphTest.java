@@ -17,8 +17,21 @@
  */
 package org.apache.commons.rdf.simple;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
 import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
 
 /**
  * Test SimpleRDFTermFactory with AbstractGraphTest
@@ -30,4 +43,42 @@ public class SimpleGraphTest extends AbstractGraphTest {
         return new SimpleRDFTermFactory();
     }
 
+    @Test
+    public void spliteratorSplitsEvenly() throws Exception {
+        RDFContext factory = createFactory();
+        Graph graph = factory.createGraph();
+        IRI predicate = factory.createIRI("http://example.com/p");
+        for (int i = 0; i < 12000; i++) {
+            graph.add(factory.createIRI("http://example.com/s" + i), predicate,
+                    factory.createLiteral(Integer.toString(i)));
+        }
+        // Removing moves the last triples into the gaps
+        for (int i = 0; i < 12000; i += 6) {
+            graph.remove(factory.createIRI("http://example.com/s" + i),
+                    predicate, factory.createLiteral(Integer.toString(i)));
+        }
+        assertEquals(10000, graph.size());
+        assertFalse(graph.contains(factory.createIRI("http://example.com/s6"),
+                predicate, factory.createLiteral("6")));
+        assertTrue(graph.contains(factory.createIRI("http://example.com/s11999"),
+                predicate, factory.createLiteral("11999")));
+
+        Spliterator<? extends Triple> spliterator = graph.getTriples()
+                .spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED
+                | Spliterator.SUBSIZED | Spliterator.DISTINCT
+                | Spliterator.NONNULL));
+        Spliterator<? extends Triple> prefix = spliterator.trySplit();
+        assertEquals(5000, prefix.estimateSize());
+        assertEquals(5000, spliterator.estimateSize());
+
+        Set<Triple> seen = new HashSet<>();
+        prefix.forEachRemaining(seen::add);
+        spliterator.forEachRemaining(seen::add);
+        assertEquals(10000, seen.size());
+        assertTrue(seen.stream().allMatch(graph::contains));
+        assertEquals(seen, graph.getTriples().parallel()
+                .collect(Collectors.toSet()));
+    }
+
 }
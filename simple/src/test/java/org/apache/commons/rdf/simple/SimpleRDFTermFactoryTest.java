@@ -17,8 +17,26 @@
  */
 package org.apache.commons.rdf.simple;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.commons.rdf.api.AbstractRDFTermFactoryTest;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
 
 /**
  * Simple RDFTermFactory Test
@@ -30,4 +48,157 @@ public class SimpleRDFTermFactoryTest extends AbstractRDFTermFactoryTest {
         return new SimpleRDFTermFactory();
     }
 
+    @Test
+    public void iriCache() throws Exception {
+        RDFContext factory = createFactory();
+        IRI iri = factory.createIRI("http://example.com/p");
+        assertSame(iri, factory.createIRI("http://example.com/p"));
+        assertSame(Types.XSD_INT, factory.createIRI(Types.XSD_INT.getIRIString()));
+
+        BoundedCache<Integer, String> cache = new BoundedCache<>(10);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("v" + (i % 100), cache.get(i % 100, k -> "v" + k));
+            assertTrue(cache.size() <= 10);
+        }
+
+        RDFContext uncached = new SimpleRDFTermFactory(0);
+        assertNotSame(uncached.createIRI("http://example.com/p"),
+                uncached.createIRI("http://example.com/p"));
+    }
+
+    @Test
+    public void nativeLiterals() throws Exception {
+        RDFContext factory = createFactory();
+        assertNative(factory.createLiteral(42L), "42", Types.XSD_INTEGER);
+        assertNative(factory.createLiteral(-1), "-1", Types.XSD_INTEGER);
+        assertNative(factory.createLiteral(2.5), "2.5", Types.XSD_DOUBLE);
+        assertNative(factory.createLiteral(0.1f), "0.1", Types.XSD_FLOAT);
+        assertNative(factory.createLiteral(true), "true", Types.XSD_BOOLEAN);
+        assertNative(factory.createLiteral(new BigDecimal("1.50")), "1.50",
+                Types.XSD_DECIMAL);
+        assertNative(factory.createLiteral(LocalDate.of(2015, 3, 1)),
+                "2015-03-01", Types.XSD_DATE);
+
+        // Hashed before the lexical form is asked for
+        assertEquals(new LiteralImpl(factory, "-7", Types.XSD_INTEGER).hashCode(),
+                factory.createLiteral(-7L).hashCode());
+        assertEquals(new LiteralImpl(factory, "0.5", Types.XSD_DOUBLE).hashCode(),
+                factory.createLiteral(0.5).hashCode());
+
+        assertEquals(42L, factory.createLiteral(42L).asLong());
+        assertEquals(-42, factory.createLiteral(-42L).asInteger());
+        try {
+            factory.createLiteral(1L << 32).asInteger();
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+        assertEquals(2.5, factory.createLiteral(2.5).asDouble(), 0.0);
+        assertEquals(LocalDate.of(2015, 3, 1),
+                factory.createLiteral(LocalDate.of(2015, 3, 1)).asTemporal());
+    }
+
+    @Test
+    public void decodedLiterals() throws Exception {
+        RDFContext factory = createFactory();
+        Literal integer = factory.createLiteral("42", Types.XSD_INT);
+        assertEquals(42L, integer.asLong());
+        assertEquals(42, integer.asInteger());
+        assertEquals(new BigDecimal("0.5"),
+                factory.createLiteral("0.5", Types.XSD_DECIMAL).asBigDecimal());
+        // Decoded numbers convert to the other numeric types
+        assertEquals(42.0, integer.asDouble(), 0.0);
+        assertEquals(BigInteger.valueOf(42), integer.asBigInteger());
+        assertEquals(new BigDecimal("12345678901234567890"), factory.createLiteral(
+                "12345678901234567890", Types.XSD_INTEGER).asBigDecimal());
+        assertEquals(0.1, factory.createLiteral("0.1", Types.XSD_DECIMAL)
+                .asDouble(), 0.0);
+        assertEquals(2.5f, factory.createLiteral("2.5", Types.XSD_DOUBLE)
+                .asFloat(), 0.0f);
+        assertEquals(new BigDecimal("1.5E3"), factory.createLiteral("1.5E3",
+                Types.XSD_DOUBLE).asBigDecimal());
+        assertTrue(factory.createLiteral("1", Types.XSD_BOOLEAN).asBoolean());
+        assertEquals(OffsetDateTime.of(2015, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC),
+                factory.createLiteral("2015-03-01T10:00:00Z", Types.XSD_DATETIME)
+                        .asTemporal());
+        // Values of other types are parsed as before
+        assertEquals(7L, factory.createLiteral("7").asLong());
+        try {
+            factory.createLiteral("x", Types.XSD_INT).asLong();
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void literalConverters() throws Exception {
+        SimpleRDFTermFactory factory = new SimpleRDFTermFactory();
+        assertEquals(factory.createLiteral(2.5), factory.createLiteralDynamic(2.5));
+        try {
+            factory.createLiteralDynamic(new StringBuilder("text"));
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        // Registering clears what was cached for StringBuilder above
+        factory.registerLiteralConverter(CharSequence.class,
+                (c, v) -> c.createLiteral(v.toString()));
+        factory.registerLiteralConverter(Number.class,
+                (c, v) -> c.createLiteral(v.toString(), Types.XSD_DECIMAL));
+        assertEquals(factory.createLiteral("text"),
+                factory.createLiteralDynamic(new StringBuilder("text")));
+        assertEquals(factory.createLiteral("3", Types.XSD_DECIMAL),
+                factory.createLiteralDynamic(new AtomicLong(3)));
+        // Converters of subclasses take precedence
+        assertEquals(factory.createLiteral(3L), factory.createLiteralDynamic(3L));
+    }
+
+    @Test
+    public void languageTagsShared() throws Exception {
+        RDFContext factory = createFactory();
+        String tag = factory.createLiteral("colour", "en-GB").getLanguageTag()
+                .get();
+        assertEquals("en-gb", tag);
+        assertSame(tag, factory.createLiteral("color", "EN-gb").getLanguageTag()
+                .get());
+        assertSame(tag, new SimpleRDFTermFactory().createLiteral("c", "en-gb")
+                .getLanguageTag().get());
+    }
+
+    @Test
+    public void fingerprints() throws Exception {
+        RDFContext factory = new SimpleRDFTermFactory(0);
+        IRI iri = factory.createIRI("http://example.com/s");
+        IRI other = factory.createIRI("http://example.com/s");
+        Literal literal = factory.createLiteral("http://example.com/s");
+        assertNotSame(iri, other);
+        assertEquals(Hashing.fingerprint(iri), Hashing.fingerprint(other));
+        assertEquals(iri.hashCode(), other.hashCode());
+        assertNotEquals(Hashing.fingerprint(iri), Hashing.fingerprint(literal));
+        assertEquals(Hashing.fingerprint(literal),
+                Hashing.fingerprint(factory.createLiteral("http://example.com/s")));
+
+        Triple triple = factory.createTriple(iri, other, literal);
+        Triple copy = factory.createTriple(other, iri,
+                factory.createLiteral("http://example.com/s"));
+        assertEquals(((Fingerprinted) triple).fingerprint(),
+                ((Fingerprinted) copy).fingerprint());
+        assertEquals(triple.hashCode(), copy.hashCode());
+        assertNotEquals(((Fingerprinted) triple).fingerprint(),
+                ((Fingerprinted) factory.createTriple(iri, other, iri)).fingerprint());
+    }
+
+    private static void assertNative(Literal literal, String lexicalForm,
+                                     IRI dataType) {
+        Literal parsed = new LiteralImpl(literal.getContext(), lexicalForm,
+                dataType);
+        assertSame(dataType, literal.getDatatype());
+        assertEquals(lexicalForm, literal.getLexicalForm());
+        assertEquals(parsed, literal);
+        assertEquals(literal, parsed);
+        assertEquals(parsed.hashCode(), literal.hashCode());
+        assertEquals(parsed.ntriplesString(), literal.ntriplesString());
+    }
+
 }
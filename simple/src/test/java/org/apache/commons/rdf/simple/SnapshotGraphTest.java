@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.apache.commons.rdf.api.AbstractGraphTest;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.apache.commons.rdf.api.Triple;
+import org.junit.Test;
+
+/**
+ * Test SnapshotRDFTermFactory with AbstractGraphTest
+ */
+public class SnapshotGraphTest extends AbstractGraphTest {
+
+    @Override
+    public RDFContext createFactory() {
+        return new SnapshotRDFTermFactory();
+    }
+
+    @Test
+    public void readersSeeSnapshot() throws Exception {
+        RDFContext factory = createFactory();
+        Graph graph = factory.createGraph();
+        IRI s = factory.createIRI("http://example.com/s");
+        IRI p = factory.createIRI("http://example.com/p");
+        for (int i = 0; i < 1000; i++) {
+            graph.add(s, p, factory.createLiteral(i));
+        }
+        Stream<? extends Triple> before = graph.getTriples();
+        Iterator<Triple> iterator = graph.iterate().iterator();
+        iterator.next();
+
+        graph.remove(s, p, factory.createLiteral(0));
+        for (int i = 1000; i < 2000; i++) {
+            graph.add(s, p, factory.createLiteral(i));
+        }
+        graph.remove(null, null, factory.createLiteral(500));
+
+        assertEquals(1000, before.count());
+        int rest = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            rest++;
+        }
+        assertEquals(999, rest);
+        assertEquals(1998, graph.size());
+        assertEquals(1998, graph.getTriples().count());
+        assertFalse(graph.contains(s, p, factory.createLiteral(500)));
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.rdf.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFContext;
+import org.junit.Test;
+
+public class StreamPolicyTest {
+
+    private static Graph graph(RDFContext factory, int size) {
+        Graph graph = factory.createGraph();
+        IRI predicate = factory.createIRI("http://example.com/p");
+        for (int i = 0; i < size; i++) {
+            graph.add(factory.createIRI("http://example.com/s" + i), predicate,
+                    factory.createLiteral(i));
+        }
+        return graph;
+    }
+
+    @Test
+    public void threshold() throws Exception {
+        Graph small = graph(new SimpleRDFTermFactory(), 10);
+        assertFalse(small.getTriples().isParallel());
+        assertFalse(small.getTriples(null, null, null).isParallel());
+
+        RDFContext factory = new SimpleRDFTermFactory(0, IRIValidator.STRICT,
+                new StreamPolicy(10));
+        Graph graph = graph(factory, 10);
+        assertTrue(graph.getTriples().isParallel());
+        assertFalse(graph(factory, 9).getTriples().isParallel());
+        assertEquals(10, graph.getTriples().count());
+    }
+
+    @Test
+    public void dedicatedPool() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            RDFContext factory = new SimpleRDFTermFactory(0,
+                    IRIValidator.STRICT, new StreamPolicy(0, pool));
+            Graph graph = graph(factory, 1000);
+            Set<ForkJoinPool> pools = graph.getTriples()
+                    .map(t -> ForkJoinTask.getPool())
+                    .collect(Collectors.toSet());
+            assertEquals(Collections.singleton(pool), pools);
+            assertEquals(1000, graph.getTriples().filter(t -> true).count());
+            assertEquals(1000, graph.count(null,
+                    factory.createIRI("http://example.com/p"), null));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
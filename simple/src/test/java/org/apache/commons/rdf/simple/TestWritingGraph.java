@@ -18,10 +18,13 @@
 package org.apache.commons.rdf.simple;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -101,10 +104,10 @@ public class TestWritingGraph {
     public void countQuery() {
         IRI subject = factory.createIRI("subj");
         IRI predicate = factory.createIRI("pred");
-        long count = graph.getTriples(subject, predicate, null).unordered()
-                .parallel().count();
+        long count = graph.count(subject, predicate, null);
         //System.out.println("Counted - " + count);
         assertEquals(count, TRIPLES);
+        assertTrue(graph.estimateCount(subject, predicate, null) >= count);
     }
 
     public static String tripleAsString(Triple t) {
@@ -126,6 +129,21 @@ public class TestWritingGraph {
         Files.write(graphFile, stream::iterator, Charset.forName("UTF-8"));
     }
 
+    @Test
+    public void writeGraphWithWriter() throws Exception {
+        Path graphFile = Files.createTempFile("graph", ".nt");
+        if (KEEP_FILES) {
+            System.out.println("With writer: " + graphFile);
+        } else {
+            graphFile.toFile().deleteOnExit();
+        }
+
+        try (NTriplesWriter writer = new NTriplesWriter(FileChannel.open(
+                graphFile, StandardOpenOption.WRITE))) {
+            writer.write(graph);
+        }
+    }
+
     @Test
     public void writeGraphFromStreamFiltered() throws Exception {
         Path graphFile = Files.createTempFile("graph", ".nt");
@@ -19,7 +19,9 @@ package org.apache.commons.rdf.simple;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.apache.commons.rdf.api.RDFContext;
 import org.junit.Test;
@@ -71,4 +73,29 @@ public class TypesTest {
                 .isPresent());
     }
 
+    /**
+     * Test method for
+     * {@link org.apache.commons.rdf.simple.Types#register(String, java.util.function.Function)}
+     * .
+     */
+    @Test
+    public final void testRegister() {
+        Types percent = Types.register("http://example.com/types#percent",
+                lexical -> Integer.parseInt(lexical) / 100.0);
+        assertSame(percent, Types.get(
+                context.createIRI("http://example.com/types#percent")).get());
+        assertSame(percent, context.createLiteral("50", percent).getDatatype());
+        assertEquals(0.5, percent.parse("50"));
+        assertEquals(Long.valueOf(42), Types.XSD_INT.parse("42"));
+        assertEquals(Double.NEGATIVE_INFINITY, Types.XSD_DOUBLE.parse("-INF"));
+        assertEquals(Boolean.TRUE, Types.XSD_BOOLEAN.parse("1"));
+        assertEquals("text", Types.XSD_STRING.parse("text"));
+        try {
+            Types.register(Types.XSD_INT.getIRIString(), null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
 }